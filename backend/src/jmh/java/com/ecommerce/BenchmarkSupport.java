@@ -0,0 +1,130 @@
+package com.ecommerce;
+
+import com.ecommerce.cart.CartLine;
+import com.ecommerce.dto.ProductCardDTO;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public final class BenchmarkSupport {
+    
+    private BenchmarkSupport() {
+    }
+    
+    /**
+     * Builds a service through its injection constructor with every collaborator left null,
+     * for benchmarking pure methods such as the DTO converters.
+     */
+    public static <T> T withNullDependencies(Class<T> type) {
+        try {
+            Constructor<?> constructor = type.getDeclaredConstructors()[0];
+            return type.cast(constructor.newInstance(new Object[constructor.getParameterCount()]));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+        }
+    }
+    
+    public static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Premium Wireless Headphones " + id);
+        product.setDescription("High-quality wireless headphones with active noise cancellation and 30 hour battery life");
+        product.setPrice(BigDecimal.valueOf(299.99));
+        product.setDiscountPrice(BigDecimal.valueOf(249.99));
+        product.setStockQuantity(50);
+        product.setCategory("Electronics");
+        product.setImageUrl("https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=500");
+        product.setBrand("Sony");
+        product.setRating(4.5);
+        product.setReviewCount(100);
+        product.setIsActive(true);
+        product.setIsFeatured(true);
+        product.setCreatedAt(LocalDateTime.now());
+        product.setUpdatedAt(LocalDateTime.now());
+        return product;
+    }
+    
+    public static ProductCardDTO productCard(long id) {
+        Product product = product(id);
+        ProductCardDTO card = new ProductCardDTO();
+        card.setId(product.getId());
+        card.setName(product.getName());
+        card.setPrice(product.getPrice());
+        card.setDiscountPrice(product.getDiscountPrice());
+        card.setImageUrl(product.getImageUrl());
+        card.setCategory(product.getCategory());
+        card.setBrand(product.getBrand());
+        card.setRating(product.getRating());
+        card.setReviewCount(product.getReviewCount());
+        card.setInStock(product.getStockQuantity() > 0);
+        card.setIsFeatured(product.getIsFeatured());
+        return card;
+    }
+    
+    public static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("user@ecommerce.com");
+        user.setFirstName("John");
+        user.setLastName("Doe");
+        user.setRole(User.Role.USER);
+        return user;
+    }
+    
+    public static CartLine cartLine(long id) {
+        return new CartLine(id, user().getId(), id, 2, 24999);
+    }
+    
+    public static Order order(long id, int lines) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user());
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setShippingAddress("1 Main Street");
+        order.setCity("Springfield");
+        order.setState("IL");
+        order.setZipCode("62701");
+        order.setCountry("USA");
+        order.setPhone("555-0100");
+        order.setCreatedAt(LocalDateTime.now());
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem(order, product(i + 1), 1, BigDecimal.valueOf(249.99));
+            item.setId(id * 100 + i);
+            order.getItems().add(item);
+            total = total.add(item.getPrice());
+        }
+        order.setTotalAmount(total);
+        return order;
+    }
+    
+    /**
+     * Starts the full application against an in-memory H2 database instead of MySQL.
+     */
+    public static ConfigurableApplicationContext startApplication() {
+        return new SpringApplicationBuilder(EcommerceApplication.class)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "server.port=0",
+                "search.index.snapshot-path=",
+                "logging.level.root=WARN",
+                "logging.level.com.ecommerce=WARN",
+                "logging.level.org.springframework.web=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+            )
+            .run();
+    }
+}
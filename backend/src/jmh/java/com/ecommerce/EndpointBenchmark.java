@@ -0,0 +1,76 @@
+package com.ecommerce;
+
+import com.ecommerce.model.User;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.JwtUtil;
+import jakarta.servlet.Filter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full request pipeline (security filter, controller, service, JPA on H2, Jackson) without the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EndpointBenchmark {
+    
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private String authorization;
+    
+    @Setup
+    public void setup() throws Exception {
+        context = BenchmarkSupport.startApplication();
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+            .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+            .build();
+        User user = context.getBean(UserRepository.class).findByEmail("user@ecommerce.com").orElseThrow();
+        authorization = "Bearer " + context.getBean(JwtUtil.class)
+            .generateAccessToken(user.getId(), user.getEmail(), user.getRole().name());
+        mockMvc.perform(post("/api/cart/add")
+            .param("productId", "1")
+            .param("quantity", "1")
+            .header("Authorization", authorization));
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public byte[] listProducts() throws Exception {
+        return mockMvc.perform(get("/api/products").param("page", "0").param("size", "12"))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+    
+    @Benchmark
+    public byte[] featuredProducts() throws Exception {
+        return mockMvc.perform(get("/api/products/featured"))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+    
+    @Benchmark
+    public byte[] cart() throws Exception {
+        return mockMvc.perform(get("/api/cart").header("Authorization", authorization))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+    
+    @Benchmark
+    public byte[] cartTotal() throws Exception {
+        return mockMvc.perform(get("/api/cart/total").header("Authorization", authorization))
+            .andReturn().getResponse().getContentAsByteArray();
+    }
+}
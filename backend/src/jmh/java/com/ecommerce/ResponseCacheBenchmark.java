@@ -0,0 +1,100 @@
+package com.ecommerce;
+
+import com.ecommerce.cache.CatalogResponseCache;
+import com.ecommerce.cache.CatalogVersion;
+import com.ecommerce.dto.ProductCardDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost per /api/products response: rendering every request (Jackson, plus gzip as Tomcat's
+ * server.compression would apply it) against serving the pre-rendered, pre-compressed payload,
+ * and the miss that renders it (fast on-demand compression; the full-strength pass runs on the
+ * cache's background thread). Bytes on the wire per encoding are printed in setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseCacheBenchmark {
+    
+    @Param({"12", "48"})
+    public int pageSize;
+    
+    @Param({"identity", "gzip", "gzip, deflate, br"})
+    public String acceptEncoding;
+    
+    private ObjectMapper objectMapper;
+    private Page<ProductCardDTO> page;
+    private CatalogResponseCache responseCache;
+    private String key;
+    
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<ProductCardDTO> cards = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            cards.add(BenchmarkSupport.productCard(i + 1));
+        }
+        page = new PageImpl<>(cards, PageRequest.of(0, pageSize), 1000);
+        
+        CatalogVersion catalogVersion = new CatalogVersion();
+        catalogVersion.loaded(LocalDateTime.now());
+        responseCache = new CatalogResponseCache(objectMapper, catalogVersion, 30, 300, 16 * 1024 * 1024, 512, 11, 4);
+        key = CatalogResponseCache.pageKey(null, 0, pageSize, "createdAt", "desc");
+        
+        ResponseEntity<?> cached = (ResponseEntity<?>) cachedPayload();
+        System.out.printf("%nPage of %d cards, Accept-Encoding '%s': %d bytes per request rendered each time, "
+                + "%d bytes from the payload cache (%s)%n",
+            pageSize, acceptEncoding, renderPerRequest().length, ((byte[]) cached.getBody()).length,
+            Objects.toString(cached.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING), "identity"));
+    }
+    
+    @Benchmark
+    public byte[] renderPerRequest() throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(page);
+        if (acceptEncoding.equals("identity")) {
+            return json;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+    
+    @Benchmark
+    public Object cachedPayload() {
+        return responseCache.catalog(webRequest(), key, () -> page);
+    }
+    
+    @Benchmark
+    public Object renderOnMiss() {
+        responseCache.invalidateAll();
+        return responseCache.catalog(webRequest(), key, () -> page);
+    }
+    
+    private ServletWebRequest webRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
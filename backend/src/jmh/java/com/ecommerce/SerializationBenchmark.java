@@ -0,0 +1,82 @@
+package com.ecommerce;
+
+import com.ecommerce.dto.ProductCardDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Param({"12", "48"})
+    public int pageSize;
+    
+    private ObjectMapper objectMapper;
+    private Page<ProductDTO> page;
+    private Page<ProductCardDTO> cardPage;
+    
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<ProductDTO> content = new ArrayList<>();
+        List<ProductCardDTO> cards = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            ProductDTO dto = new ProductDTO();
+            dto.setId((long) i);
+            dto.setName("Premium Wireless Headphones " + i);
+            dto.setDescription("High-quality wireless headphones with active noise cancellation");
+            dto.setPrice(BigDecimal.valueOf(299.99));
+            dto.setDiscountPrice(BigDecimal.valueOf(249.99));
+            dto.setStockQuantity(50);
+            dto.setCategory("Electronics");
+            dto.setImageUrl("https://images.unsplash.com/photo-1505740420928-5e560c06d30e?w=500");
+            dto.setBrand("Sony");
+            dto.setRating(4.5);
+            dto.setReviewCount(100);
+            dto.setIsActive(true);
+            dto.setIsFeatured(false);
+            content.add(dto);
+            
+            ProductCardDTO card = new ProductCardDTO();
+            card.setId(dto.getId());
+            card.setName(dto.getName());
+            card.setPrice(dto.getPrice());
+            card.setDiscountPrice(dto.getDiscountPrice());
+            card.setImageUrl(dto.getImageUrl());
+            card.setCategory(dto.getCategory());
+            card.setBrand(dto.getBrand());
+            card.setRating(dto.getRating());
+            card.setReviewCount(dto.getReviewCount());
+            card.setInStock(dto.getStockQuantity() > 0);
+            card.setIsFeatured(dto.getIsFeatured());
+            cards.add(card);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1000);
+        cardPage = new PageImpl<>(cards, PageRequest.of(0, pageSize), 1000);
+        System.out.printf("%nPayload for %d products: %d bytes as ProductDTO, %d bytes as ProductCardDTO%n",
+            pageSize, serializeProductPage().length, serializeProductCardPage().length);
+    }
+    
+    @Benchmark
+    public byte[] serializeProductPage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    @Benchmark
+    public byte[] serializeProductCardPage() throws Exception {
+        return objectMapper.writeValueAsBytes(cardPage);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.BenchmarkSupport;
+import com.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database side of a listing page: the full Product entity query the list endpoints used to run
+ * against the narrow card projection. Setup prints the bytes each returns per page, counted as the
+ * text form of every selected value (roughly what MySQL's text protocol puts on the wire).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingQueryBenchmark {
+    
+    private static final int PRODUCTS = 2000;
+    private static final String ENTITY_COLUMNS = "*";
+    private static final String CARD_COLUMNS = "id, name, price, discount_price, image_url, category, brand, rating, "
+        + "review_count, stock_quantity, is_featured, is_active, created_at";
+    
+    @Param({"12", "48"})
+    public int pageSize;
+    
+    private ConfigurableApplicationContext context;
+    private ProductRepository productRepository;
+    
+    @Setup
+    public void setup() {
+        context = BenchmarkSupport.startApplication();
+        productRepository = context.getBean(ProductRepository.class);
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = BenchmarkSupport.product(0);
+            product.setId(null);
+            // Listing descriptions run close to the 2000-char column limit in real catalogs
+            product.setDescription(product.getDescription().repeat(25).substring(0, 1800));
+            products.add(product);
+        }
+        productRepository.saveAll(products);
+        
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        long entityBytes = pageBytes(jdbcTemplate, ENTITY_COLUMNS);
+        long cardBytes = pageBytes(jdbcTemplate, CARD_COLUMNS);
+        System.out.printf("%nPage of %d: %d bytes from the database as Product entities, %d bytes as cards "
+                + "(%.0f%% less)%n", pageSize, entityBytes, cardBytes, 100.0 * (entityBytes - cardBytes) / entityBytes);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public List<Product> entityPage() {
+        return productRepository.findFirstActivePage(PageRequest.of(0, pageSize));
+    }
+    
+    @Benchmark
+    public List<ProductCardRow> cardPage() {
+        return productRepository.findActiveCards(PageRequest.of(0, pageSize,
+            Sort.by(Sort.Direction.DESC, "createdAt", "id"))).getContent();
+    }
+    
+    private long pageBytes(JdbcTemplate jdbcTemplate, String columns) {
+        String sql = "SELECT " + columns + " FROM products WHERE is_active = TRUE "
+            + "ORDER BY created_at DESC, id DESC LIMIT " + pageSize;
+        return jdbcTemplate.query(sql, (ResultSet rs) -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            long bytes = 0;
+            while (rs.next()) {
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    String value = rs.getString(i);
+                    bytes += value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+                }
+            }
+            return bytes;
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private JwtUtil jwtUtil;
+    private String token;
+    
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "ShopLux_Ecommerce_Secret_Key_2024_Minimum_256_Bits_Long");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 900000L);
+        jwtUtil.init();
+        token = jwtUtil.generateAccessToken(2L, "user@ecommerce.com", "USER");
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateAccessToken(2L, "user@ecommerce.com", "USER");
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.service;
+
+import com.ecommerce.BenchmarkSupport;
+import com.ecommerce.dto.CheckoutRequest;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.metrics.SqlStatementCounter;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checkout latency as the cart grows, with the cart filled (and its stock reserved) outside the
+ * measured call. Setup prints the JDBC round trips one checkout costs, which should not grow
+ * with the number of lines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+    
+    @Param({"1", "10", "25", "50", "100"})
+    public int cartSize;
+    
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CartService cartService;
+    private SqlStatementCounter statementCounter;
+    private List<Long> productIds;
+    private CheckoutRequest request;
+    private String email;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkSupport.startApplication();
+        orderService = context.getBean(OrderService.class);
+        cartService = context.getBean(CartService.class);
+        statementCounter = context.getBean(SqlStatementCounter.class);
+        
+        User user = BenchmarkSupport.user();
+        user.setId(null);
+        user.setEmail("checkout-" + cartSize + "@bench.test");
+        user.setPassword("unused");
+        email = context.getBean(UserRepository.class).save(user).getEmail();
+        
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < cartSize; i++) {
+            Product product = BenchmarkSupport.product(0);
+            product.setId(null);
+            product.setStockQuantity(Integer.MAX_VALUE / 2);
+            products.add(product);
+        }
+        productIds = new ArrayList<>();
+        context.getBean(ProductRepository.class).saveAll(products).forEach(product -> productIds.add(product.getId()));
+        
+        request = new CheckoutRequest();
+        request.setShippingAddress("1 Main Street");
+        request.setCity("Springfield");
+        request.setState("IL");
+        request.setZipCode("62701");
+        request.setCountry("USA");
+        request.setPhone("555-0100");
+        
+        fillCart();
+        statementCounter.reset();
+        checkout();
+        System.out.printf("%nCheckout of %d cart lines: %d JDBC statements%n", cartSize, statementCounter.current());
+    }
+    
+    @Setup(Level.Invocation)
+    public void fillCart() {
+        for (Long productId : productIds) {
+            cartService.addToCart(email, productId, 1);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public OrderDTO checkout() {
+        return orderService.createOrder(email, request);
+    }
+}
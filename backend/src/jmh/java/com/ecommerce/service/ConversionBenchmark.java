@@ -0,0 +1,57 @@
+package com.ecommerce.service;
+
+import com.ecommerce.BenchmarkSupport;
+import com.ecommerce.cart.CartLine;
+import com.ecommerce.dto.CartItemDTO;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.Product;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+    
+    @Param({"1", "10"})
+    public int orderLines;
+    
+    private ProductService productService;
+    private CartService cartService;
+    private OrderService orderService;
+    private Product product;
+    private ProductDTO productDTO;
+    private CartLine cartLine;
+    private Order order;
+    
+    @Setup
+    public void setup() {
+        productService = BenchmarkSupport.withNullDependencies(ProductService.class);
+        cartService = BenchmarkSupport.withNullDependencies(CartService.class);
+        orderService = BenchmarkSupport.withNullDependencies(OrderService.class);
+        product = BenchmarkSupport.product(1);
+        productDTO = productService.convertToDTO(product);
+        cartLine = BenchmarkSupport.cartLine(1);
+        order = BenchmarkSupport.order(1, orderLines);
+    }
+    
+    @Benchmark
+    public ProductDTO productToDTO() {
+        return productService.convertToDTO(product);
+    }
+    
+    @Benchmark
+    public CartItemDTO cartItemToDTO() {
+        return cartService.convertToDTO(cartLine, productDTO);
+    }
+    
+    @Benchmark
+    public OrderDTO orderToDTO() {
+        return orderService.convertToDTO(order);
+    }
+}
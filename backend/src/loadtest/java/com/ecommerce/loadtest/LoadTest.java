@@ -0,0 +1,467 @@
+package com.ecommerce.loadtest;
+
+import com.ecommerce.datagen.CatalogVocabulary;
+import com.ecommerce.datagen.DatasetManifest;
+import com.ecommerce.datagen.ZipfDistribution;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load driver for comparing the platform-thread and virtual-thread modes.
+ * Run it once against each mode with a different --label, then --compare the two result files.
+ *
+ * <pre>
+ * --url http://localhost:8080 --scenario products|checkout|mix --concurrency 200 --duration 60 --label platform
+ * --compare target/loadtest-platform.properties target/loadtest-virtual.properties
+ * </pre>
+ *
+ * The checkout scenario registers one user per worker and buys one unit of a random product per
+ * iteration, so it draws stock down; reseed the database between runs.
+ *
+ * <p>The mix scenario replays a shopper mix over a dataset written by the datagen profile:
+ * {@code --dataset datagen-manifest.properties --mix browse=40,product=25,search=15,orders=10,cart=7,checkout=3}.
+ * Products are drawn from the dataset's Zipf popularity curve, and worker n logs in as the n-th most
+ * active generated user, so order history reads hit the longest histories. Without --dataset it
+ * registers fresh users and picks products uniformly from the first listing page. Expired access
+ * tokens are refreshed and the request retried, so runs can outlast the token lifetime.
+ */
+public class LoadTest {
+    
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern REFRESH_TOKEN = Pattern.compile("\"refreshToken\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String CHECKOUT_BODY = "{\"shippingAddress\":\"1 Load Street\",\"city\":\"Springfield\","
+        + "\"state\":\"IL\",\"zipCode\":\"62701\",\"country\":\"USA\",\"phone\":\"555-0100\"}";
+    private static final String[] OPERATIONS = {"browse", "product", "search", "orders", "cart", "checkout"};
+    private static final String DEFAULT_MIX = "browse=40,product=25,search=15,orders=10,cart=7,checkout=3";
+    // Shoppers rarely page deep: listing pages are Zipf-distributed over the first 50
+    private static final ZipfDistribution BROWSE_PAGES = new ZipfDistribution(50, 1.2);
+    
+    private final HttpClient client = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    private final String baseUrl;
+    private final DatasetManifest dataset;
+    private final ZipfDistribution popularity;
+    private final int[] mix;
+    
+    LoadTest(String baseUrl, DatasetManifest dataset, int[] mix) {
+        this.baseUrl = baseUrl;
+        this.dataset = dataset;
+        this.popularity = dataset != null
+            ? new ZipfDistribution(dataset.getProductCount(), dataset.getPopularityExponent())
+            : null;
+        this.mix = mix;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options.containsKey("compare")) {
+            compare(Path.of(options.get("compare")), Path.of(options.get("against")));
+            return;
+        }
+        
+        String label = options.getOrDefault("label", "run");
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        DatasetManifest dataset = options.containsKey("dataset")
+            ? DatasetManifest.load(Path.of(options.get("dataset")))
+            : null;
+        LoadTest test = new LoadTest(options.getOrDefault("url", "http://localhost:8080"), dataset,
+            parseMix(options.getOrDefault("mix", DEFAULT_MIX)));
+        Map<String, Series> results = test.run(
+            options.getOrDefault("scenario", "products"),
+            Integer.parseInt(options.getOrDefault("concurrency", "100")),
+            duration,
+            Integer.parseInt(options.getOrDefault("warmup", "10")));
+        if (results.size() > 1) {
+            Series total = new Series(duration);
+            results.values().forEach(total::merge);
+            results.put("total", total);
+        }
+        
+        Properties report = new Properties();
+        System.out.printf("%n%-12s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+            label, "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Series> entry : new TreeMap<>(results).entrySet()) {
+            Series series = entry.getValue();
+            series.print(entry.getKey());
+            series.store(report, entry.getKey());
+        }
+        Path out = Path.of(options.getOrDefault("out", "target/loadtest-" + label + ".properties"));
+        Files.createDirectories(out.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(out)) {
+            report.store(writer, "load test " + label);
+        }
+        System.out.println("Results written to " + out);
+    }
+    
+    Map<String, Series> run(String scenario, int concurrency, int durationSeconds, int warmupSeconds)
+            throws Exception {
+        List<Long> productIds = dataset == null ? productIds() : List.of();
+        if (dataset == null && productIds.isEmpty()) {
+            throw new IllegalStateException("No products returned by " + baseUrl + "/api/products");
+        }
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        boolean signedIn = scenario.equals("checkout") || scenario.equals("mix");
+        
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Session session = null;
+            if (signedIn && dataset != null) {
+                long rank = i % dataset.getUserCount() + 1;
+                session = login(dataset.userEmail(dataset.userIndex(rank)), dataset.getUserPassword());
+            } else if (signedIn) {
+                session = register("loadtest-" + runId + "-" + i + "@example.com");
+            }
+            workers.add(new Worker(scenario, session, productIds));
+        }
+        
+        System.out.printf("%s: %d workers, %ds warm-up, %ds measured against %s%s%n",
+            scenario, concurrency, warmupSeconds, durationSeconds, baseUrl,
+            dataset != null ? " (dataset of " + dataset.getProductCount() + " products)" : "");
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        for (Worker worker : workers) {
+            pool.submit(() -> worker.loop(measureFrom, stopAt));
+        }
+        pool.shutdown();
+        pool.awaitTermination(warmupSeconds + durationSeconds + 60L, TimeUnit.SECONDS);
+        
+        Map<String, Series> merged = new HashMap<>();
+        for (Worker worker : workers) {
+            worker.series.forEach((name, series) ->
+                merged.computeIfAbsent(name, key -> new Series(durationSeconds)).merge(series));
+        }
+        return merged;
+    }
+    
+    private List<Long> productIds() throws IOException, InterruptedException {
+        HttpResponse<String> response = send(get("/api/products?page=0&size=100", null));
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = ID.matcher(response.body());
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+    
+    private Session register(String email) throws IOException, InterruptedException {
+        String body = "{\"firstName\":\"Load\",\"lastName\":\"Test\",\"email\":\"" + email + "\",\"password\":\"loadtest123\"}";
+        return session("Registration", send(post("/api/auth/register", null, body)));
+    }
+    
+    private Session login(String email, String password) throws IOException, InterruptedException {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        return session("Login of " + email, send(post("/api/auth/login", null, body)));
+    }
+    
+    private static Session session(String what, HttpResponse<String> response) {
+        Matcher token = TOKEN.matcher(response.body());
+        Matcher refreshToken = REFRESH_TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException(what + " failed (" + response.statusCode() + "): " + response.body());
+        }
+        return new Session(token.group(1), refreshToken.find() ? refreshToken.group(1) : null);
+    }
+    
+    private HttpRequest get(String path, String token) {
+        return request(path, token).GET().build();
+    }
+    
+    private HttpRequest post(String path, String token, String json) {
+        return request(path, token)
+            .header("Content-Type", "application/json")
+            .POST(json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+    
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+    
+    private static final class Session {
+        private String token;
+        private String refreshToken;
+        
+        Session(String token, String refreshToken) {
+            this.token = token;
+            this.refreshToken = refreshToken;
+        }
+    }
+    
+    private final class Worker {
+        private final String scenario;
+        private final Session session;
+        private final List<Long> productIds;
+        private final Map<String, Series> series = new HashMap<>();
+        
+        Worker(String scenario, Session session, List<Long> productIds) {
+            this.scenario = scenario;
+            this.session = session;
+            this.productIds = productIds;
+        }
+        
+        void loop(long measureFrom, long stopAt) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < stopAt) {
+                boolean measured = System.nanoTime() >= measureFrom;
+                if (scenario.equals("checkout")) {
+                    checkout(random, measured);
+                } else if (scenario.equals("mix")) {
+                    perform(OPERATIONS[pick(random)], random, measured);
+                } else {
+                    String path = "/api/products?page=" + random.nextInt(10) + "&size=12";
+                    call("products", token -> get(path, null), measured);
+                }
+            }
+        }
+        
+        private void perform(String operation, ThreadLocalRandom random, boolean measured) {
+            if (operation.equals("browse")) {
+                long page = BROWSE_PAGES.sample(random) - 1;
+                String path = random.nextDouble() < 0.3
+                    ? "/api/products/category/"
+                        + encode(CatalogVocabulary.CATEGORIES[random.nextInt(CatalogVocabulary.CATEGORIES.length)])
+                        + "?page=" + page + "&size=12"
+                    : "/api/products?page=" + page + "&size=12";
+                call("browse", token -> get(path, null), measured);
+            } else if (operation.equals("product")) {
+                String path = "/api/products/" + productId(random);
+                call("product", token -> get(path, null), measured);
+            } else if (operation.equals("search")) {
+                String path = "/api/products/search?q=" + encode(CatalogVocabulary.searchTerm(random))
+                    + "&page=0&size=12";
+                call("search", token -> get(path, null), measured);
+            } else if (operation.equals("orders")) {
+                call("orders", token -> get("/api/orders/page?size=10", token), measured);
+            } else if (operation.equals("cart")) {
+                addToCart(random, measured);
+            } else {
+                checkout(random, measured);
+            }
+        }
+        
+        private void checkout(ThreadLocalRandom random, boolean measured) {
+            addToCart(random, measured);
+            call("checkout", token -> post("/api/orders/checkout", token, CHECKOUT_BODY), measured);
+        }
+        
+        private void addToCart(ThreadLocalRandom random, boolean measured) {
+            String path = "/api/cart/add?productId=" + productId(random) + "&quantity=1";
+            call("cart.add", token -> post(path, token, null), measured);
+        }
+        
+        private long productId(ThreadLocalRandom random) {
+            return dataset != null
+                ? dataset.productId(popularity.sample(random))
+                : productIds.get(random.nextInt(productIds.size()));
+        }
+        
+        private int pick(ThreadLocalRandom random) {
+            int roll = random.nextInt(mix[mix.length - 1]);
+            int operation = 0;
+            while (roll >= mix[operation]) {
+                operation++;
+            }
+            return operation;
+        }
+        
+        // The request is rebuilt from the current access token, so a 401 can be retried after a refresh.
+        private void call(String name, Function<String, HttpRequest> request, boolean measured) {
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                HttpResponse<String> response = send(request.apply(session != null ? session.token : null));
+                if (response.statusCode() == 401 && refresh()) {
+                    response = send(request.apply(session.token));
+                }
+                ok = response.statusCode() < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (measured) {
+                series.computeIfAbsent(name, key -> new Series(0)).record(System.nanoTime() - start, ok);
+            }
+        }
+        
+        private boolean refresh() throws IOException, InterruptedException {
+            if (session == null || session.refreshToken == null) {
+                return false;
+            }
+            HttpResponse<String> response = send(post("/api/auth/refresh", null,
+                "{\"refreshToken\":\"" + session.refreshToken + "\"}"));
+            Matcher token = TOKEN.matcher(response.body());
+            Matcher refreshToken = REFRESH_TOKEN.matcher(response.body());
+            if (response.statusCode() != 200 || !token.find()) {
+                return false;
+            }
+            session.token = token.group(1);
+            if (refreshToken.find()) {
+                session.refreshToken = refreshToken.group(1);
+            }
+            return true;
+        }
+    }
+    
+    static final class Series {
+        private final int durationSeconds;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        
+        Series(int durationSeconds) {
+            this.durationSeconds = durationSeconds;
+        }
+        
+        void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+        
+        void merge(Series other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, count + other.count);
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+        
+        double percentileMillis(double p) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(p * count) - 1;
+            return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+        }
+        
+        double throughput() {
+            return durationSeconds == 0 ? 0 : (double) count / durationSeconds;
+        }
+        
+        void print(String name) {
+            System.out.printf("%-12s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, count, errors,
+                throughput(), percentileMillis(0.50), percentileMillis(0.95), percentileMillis(0.99),
+                percentileMillis(0.999), percentileMillis(1.0));
+        }
+        
+        void store(Properties report, String name) {
+            report.setProperty(name + ".requests", Integer.toString(count));
+            report.setProperty(name + ".errors", Long.toString(errors));
+            report.setProperty(name + ".throughput", String.format("%.1f", throughput()));
+            report.setProperty(name + ".p50", String.format("%.2f", percentileMillis(0.50)));
+            report.setProperty(name + ".p95", String.format("%.2f", percentileMillis(0.95)));
+            report.setProperty(name + ".p99", String.format("%.2f", percentileMillis(0.99)));
+            report.setProperty(name + ".p999", String.format("%.2f", percentileMillis(0.999)));
+        }
+    }
+    
+    private static void compare(Path baseline, Path candidate) throws IOException {
+        Properties a = load(baseline);
+        Properties b = load(candidate);
+        System.out.printf("%-24s %14s %14s %9s%n", "metric", baseline.getFileName(), candidate.getFileName(), "change");
+        for (String key : new TreeSet<>(a.stringPropertyNames())) {
+            double before = Double.parseDouble(a.getProperty(key));
+            double after = Double.parseDouble(b.getProperty(key, "0"));
+            String change = before == 0 ? "n/a" : String.format("%+.1f%%", (after - before) * 100 / before);
+            System.out.printf("%-24s %14s %14s %9s%n", key, a.getProperty(key), b.getProperty(key, "-"), change);
+        }
+    }
+    
+    private static Properties load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+    
+    // Cumulative weights in OPERATIONS order, from "browse=40,search=20,..."; unlisted operations get 0.
+    private static int[] parseMix(String spec) {
+        Map<String, Integer> weights = new HashMap<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2 || !Arrays.asList(OPERATIONS).contains(pair[0])) {
+                throw new IllegalArgumentException("Bad --mix entry '" + part + "', expected one of "
+                    + Arrays.toString(OPERATIONS) + "=weight");
+            }
+            weights.put(pair[0], Integer.parseInt(pair[1]));
+        }
+        int[] cumulative = new int[OPERATIONS.length];
+        int sum = 0;
+        for (int i = 0; i < OPERATIONS.length; i++) {
+            sum += weights.getOrDefault(OPERATIONS[i], 0);
+            cumulative[i] = sum;
+        }
+        if (sum <= 0) {
+            throw new IllegalArgumentException("--mix needs at least one positive weight");
+        }
+        return cumulative;
+    }
+    
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (name.equals("compare")) {
+                options.put("compare", args[++i]);
+                options.put("against", args[++i]);
+            } else {
+                options.put(name, args[++i]);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.cache;
+
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.ProductStockChangedEvent;
+import com.ecommerce.event.ProductsImportedEvent;
+import com.ecommerce.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through cache for catalog reads. Caffeine gives W-TinyLFU eviction and per-key
+ * single-flight loading, so a burst of misses on one product costs one query.
+ * Cached DTOs are shared between requests and must be treated as read-only.
+ */
+@Component
+public class CatalogCache {
+    
+    private static final String CATEGORIES = "categories";
+    
+    private final Cache<Long, ProductDTO> products;
+    private final Cache<String, List<?>> lists;
+    private final CatalogVersion catalogVersion;
+    
+    public CatalogCache(
+        CatalogVersion catalogVersion,
+        @Value("${catalog.cache.max-products:10000}") long maxProducts,
+        @Value("${catalog.cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.catalogVersion = catalogVersion;
+        this.products = Caffeine.newBuilder()
+            .maximumSize(maxProducts)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        this.lists = Caffeine.newBuilder()
+            .maximumSize(16)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
+    
+    public ProductDTO getProduct(Long id, Function<Long, ProductDTO> loader) {
+        return products.get(id, loader);
+    }
+    
+    @SuppressWarnings("unchecked")
+    public List<String> getCategories(Supplier<List<String>> loader) {
+        // Products without a category are not listed under one; List.copyOf would also reject the null
+        return (List<String>) lists.get(CATEGORIES, key -> loader.get().stream()
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableList()));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.getProducts().forEach(this::invalidate);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        products.invalidateAll(event.getProductIds());
+        event.getProductIds().forEach(id -> catalogVersion.productChanged(id, null));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        invalidateAll();
+        catalogVersion.allProductsChanged();
+    }
+    
+    public void invalidateAll() {
+        products.invalidateAll();
+        lists.invalidateAll();
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("products", describe(products.stats(), products.estimatedSize()));
+        stats.put("lists", describe(lists.stats(), lists.estimatedSize()));
+        return stats;
+    }
+    
+    private void invalidate(Product product) {
+        ProductDTO previous = products.getIfPresent(product.getId());
+        products.invalidate(product.getId());
+        catalogVersion.productChanged(product.getId(), product.getUpdatedAt());
+        
+        // Categories only move when a product is (de)activated, changes category or introduces a new one.
+        List<?> categories = lists.getIfPresent(CATEGORIES);
+        if (categories != null && (!Boolean.TRUE.equals(product.getIsActive())
+            || (product.getCategory() != null && !categories.contains(product.getCategory()))
+            || previous == null
+            || !Objects.equals(previous.getCategory(), product.getCategory()))) {
+            lists.invalidate(CATEGORIES);
+        }
+    }
+    
+    private static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", size);
+        description.put("hits", stats.hitCount());
+        description.put("misses", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictions", stats.evictionCount());
+        description.put("loadFailures", stats.loadFailureCount());
+        description.put("averageLoadPenaltyNanos", stats.averageLoadPenalty());
+        return description;
+    }
+}
@@ -0,0 +1,231 @@
+package com.ecommerce.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET and pre-serialized bodies for the public catalog endpoints. A request whose
+ * validators still match gets a 304 before the body supplier runs, so it never reaches a
+ * repository; otherwise the bytes rendered for the current version are written as-is, without
+ * Jackson, pre-compressed with gzip or brotli when the client accepts it. Entries are weighed by
+ * size and tagged with the version they were rendered for, so a version bump retires them
+ * without an explicit sweep.
+ * <p>
+ * Concurrent misses for the same key and version share one render. That render compresses at fast
+ * settings on the request thread; a background thread then swaps in the entry at full gzip and
+ * brotli strength, so the slow encoders never sit on a request's latency.
+ */
+@Component
+@Slf4j
+public class CatalogResponseCache {
+    
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final Cache<String, CompressedPayload> bodies;
+    private final String cacheControl;
+    private final int compressMinBytes;
+    private final int brotliQuality;
+    private final int onDemandBrotliQuality;
+    private final Map<String, CompletableFuture<CompressedPayload>> rendering = new ConcurrentHashMap<>();
+    private final LongAdder renderedBytes = new LongAdder();
+    private final LongAdder servedBytes = new LongAdder();
+    private final LongAdder renders = new LongAdder();
+    private final LongAdder sharedRenders = new LongAdder();
+    private final LongAdder recompressed = new LongAdder();
+    // Single worker with a short queue: when it falls behind, entries simply keep their fast encoding
+    private final ExecutorService recompressor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(256), r -> {
+            Thread thread = new Thread(r, "catalog-recompress");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    
+    public CatalogResponseCache(
+        ObjectMapper objectMapper,
+        CatalogVersion catalogVersion,
+        @Value("${catalog.http.max-age-seconds:30}") long maxAgeSeconds,
+        @Value("${catalog.http.stale-while-revalidate-seconds:300}") long staleWhileRevalidateSeconds,
+        @Value("${catalog.http.cache-max-bytes:16777216}") long maxBytes,
+        @Value("${catalog.http.compress-min-bytes:512}") int compressMinBytes,
+        @Value("${catalog.http.brotli-quality:11}") int brotliQuality,
+        @Value("${catalog.http.brotli-quality-on-demand:4}") int onDemandBrotliQuality
+    ) {
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.compressMinBytes = compressMinBytes;
+        this.brotliQuality = brotliQuality;
+        this.onDemandBrotliQuality = onDemandBrotliQuality;
+        this.bodies = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String key, CompressedPayload payload) -> key.length() + payload.weight())
+            .recordStats()
+            .build();
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds))
+            .cachePublic()
+            .staleWhileRevalidate(Duration.ofSeconds(staleWhileRevalidateSeconds))
+            .getHeaderValue();
+    }
+    
+    /**
+     * Response for a listing endpoint, validated by the catalog version.
+     */
+    public ResponseEntity<?> catalog(ServletWebRequest request, String key, Supplier<?> body) {
+        if (!catalogVersion.isReady()) {
+            return ResponseEntity.ok(body.get());
+        }
+        return respond(request, key, "c" + Long.toString(catalogVersion.current(), 36),
+            catalogVersion.lastModified(), body);
+    }
+    
+    /**
+     * Response for one product's detail, validated by that product's stamp.
+     */
+    public ResponseEntity<?> product(ServletWebRequest request, Long productId, Supplier<?> body) {
+        if (!catalogVersion.isReady()) {
+            return ResponseEntity.ok(body.get());
+        }
+        return respond(request, "product:" + productId,
+            "p" + productId + "-" + Long.toString(catalogVersion.productVersion(productId), 36),
+            catalogVersion.productLastModified(productId), body);
+    }
+    
+    /**
+     * Cache key of one listing page: (category, page, size, sort).
+     */
+    public static String pageKey(String category, int page, int size, String sortBy, String sortDir) {
+        return "products?category=" + (category != null ? category : "") + "&page=" + page + "&size=" + size
+            + "&sort=" + sortBy + "," + sortDir.toLowerCase(Locale.ROOT);
+    }
+    
+    public void invalidateAll() {
+        bodies.invalidateAll();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        recompressor.shutdownNow();
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", bodies.estimatedSize());
+        stats.put("hits", bodies.stats().hitCount());
+        stats.put("misses", bodies.stats().missCount());
+        stats.put("evictions", bodies.stats().evictionCount());
+        stats.put("uncompressedBytes", renderedBytes.sum());
+        stats.put("servedBytes", servedBytes.sum());
+        stats.put("renders", renders.sum());
+        stats.put("sharedRenders", sharedRenders.sum());
+        stats.put("recompressed", recompressed.sum());
+        return stats;
+    }
+    
+    private ResponseEntity<?> respond(ServletWebRequest request, String key, String version, long lastModified,
+                                      Supplier<?> body) {
+        String etag = "W/\"" + version + "\"";
+        if (request.checkNotModified(etag, lastModified)) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            request.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return null;
+        }
+        CompressedPayload payload = render(key, version, body);
+        String encoding = payload.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        byte[] bytes = payload.body(encoding);
+        renderedBytes.add(payload.identity().length);
+        servedBytes.add(bytes.length);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+            .contentType(MediaType.APPLICATION_JSON);
+        if (encoding != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        return response.body(bytes);
+    }
+    
+    private CompressedPayload render(String key, String version, Supplier<?> body) {
+        CompressedPayload cached = bodies.getIfPresent(key);
+        if (cached != null && cached.version().equals(version)) {
+            return cached;
+        }
+        String renderKey = key + "@" + version;
+        CompletableFuture<CompressedPayload> mine = new CompletableFuture<>();
+        CompletableFuture<CompressedPayload> inFlight = rendering.putIfAbsent(renderKey, mine);
+        if (inFlight != null) {
+            sharedRenders.increment();
+            return await(inFlight);
+        }
+        try {
+            CompressedPayload payload = bodies.getIfPresent(key);
+            if (payload == null || !payload.version().equals(version)) {
+                payload = CompressedPayload.of(version, objectMapper.writeValueAsBytes(body.get()),
+                    compressMinBytes, Deflater.DEFAULT_COMPRESSION, onDemandBrotliQuality);
+                renders.increment();
+                bodies.put(key, payload);
+                scheduleRecompression(key, payload);
+            }
+            mine.complete(payload);
+            return payload;
+        } catch (JsonProcessingException e) {
+            RuntimeException failure = new RuntimeException("Could not serialize " + key, e);
+            mine.completeExceptionally(failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(renderKey, mine);
+        }
+    }
+    
+    private void scheduleRecompression(String key, CompressedPayload payload) {
+        if (!payload.isCompressed()) {
+            return;
+        }
+        recompressor.execute(() -> {
+            try {
+                CompressedPayload smaller = payload.recompress(Deflater.BEST_COMPRESSION, brotliQuality);
+                // Only replaces the exact entry it was made from; a newer render wins
+                if (bodies.asMap().replace(key, payload, smaller)) {
+                    recompressed.increment();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not recompress {}: {}", key, e.getMessage());
+            }
+        });
+    }
+    
+    private static CompressedPayload await(CompletableFuture<CompressedPayload> render) {
+        try {
+            return render.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.cache;
+
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP validators for the public catalog endpoints. The catalog version moves only after the card
+ * store has applied a change, so a list ETag never runs ahead of what the lists serve; a product's
+ * stamp moves after its cached detail has been invalidated. Versions start at the boot time so
+ * validators issued by a previous process never match.
+ */
+@Component
+public class CatalogVersion {
+    
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final long bootVersion = version.get();
+    private final AtomicLong productVersion = new AtomicLong(bootVersion);
+    private final Map<Long, Stamp> products = new ConcurrentHashMap<>();
+    private volatile long productBaseline = bootVersion;
+    private volatile long lastModified;
+    private volatile long loadedLastModified;
+    private volatile boolean ready;
+    
+    /**
+     * False until the card store has loaded; until then no validators are issued.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public long current() {
+        return version.get();
+    }
+    
+    public long lastModified() {
+        return lastModified;
+    }
+    
+    public long productVersion(Long productId) {
+        Stamp stamp = products.get(productId);
+        return stamp != null ? stamp.version : productBaseline;
+    }
+    
+    public long productLastModified(Long productId) {
+        Stamp stamp = products.get(productId);
+        return stamp != null ? stamp.lastModified : loadedLastModified;
+    }
+    
+    /**
+     * Called by the card store once it has loaded, with the newest Product.updatedAt it saw.
+     */
+    public void loaded(LocalDateTime newestUpdate) {
+        long millis = newestUpdate != null ? toMillis(newestUpdate) : System.currentTimeMillis();
+        loadedLastModified = millis;
+        lastModified = Math.max(lastModified, millis);
+        version.incrementAndGet();
+        ready = true;
+    }
+    
+    /**
+     * Called by the card store after it has applied a change to the listed catalog.
+     */
+    public void catalogChanged(LocalDateTime updatedAt) {
+        long millis = updatedAt != null ? toMillis(updatedAt) : System.currentTimeMillis();
+        lastModified = Math.max(lastModified, millis);
+        version.incrementAndGet();
+    }
+    
+    /**
+     * Called by {@link CatalogCache} after it has dropped the product's cached detail.
+     */
+    public void productChanged(Long productId, LocalDateTime updatedAt) {
+        long millis = updatedAt != null ? toMillis(updatedAt) : System.currentTimeMillis();
+        products.put(productId, new Stamp(productVersion.incrementAndGet(), millis));
+    }
+    
+    /**
+     * Called by {@link CatalogCache} after a bulk import has dropped every cached detail; moves all
+     * product stamps at once instead of one per imported row.
+     */
+    public void allProductsChanged() {
+        long now = System.currentTimeMillis();
+        productBaseline = productVersion.incrementAndGet();
+        loadedLastModified = Math.max(loadedLastModified, now);
+        products.clear();
+    }
+    
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private static final class Stamp {
+        private final long version;
+        private final long lastModified;
+        
+        Stamp(long version, long lastModified) {
+            this.version = version;
+            this.lastModified = lastModified;
+        }
+    }
+}
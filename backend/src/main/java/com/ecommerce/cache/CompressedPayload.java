@@ -0,0 +1,155 @@
+package com.ecommerce.cache;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import lombok.extern.slf4j.Slf4j;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One rendered JSON body with its gzip and brotli encodings, compressed once when rendered and
+ * then served to every client that accepts them. An encoding is dropped when the body is below
+ * the threshold or compression does not make it smaller. A body rendered on a request is
+ * compressed at fast settings and may later be replaced by a {@link #recompress recompressed} copy.
+ */
+@Slf4j
+final class CompressedPayload {
+    static final String GZIP = "gzip";
+    static final String BROTLI = "br";
+    
+    private static final boolean BROTLI_AVAILABLE = loadBrotli();
+    
+    private final String version;
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final byte[] brotli;
+    
+    private CompressedPayload(String version, byte[] identity, byte[] gzip, byte[] brotli) {
+        this.version = version;
+        this.identity = identity;
+        this.gzip = gzip;
+        this.brotli = brotli;
+    }
+    
+    static CompressedPayload of(String version, byte[] json, int minBytes, int gzipLevel, int brotliQuality) {
+        if (json.length < minBytes) {
+            return new CompressedPayload(version, json, null, null);
+        }
+        byte[] gzip = smaller(gzip(json, gzipLevel), json);
+        byte[] brotli = BROTLI_AVAILABLE ? smaller(brotli(json, brotliQuality), json) : null;
+        return new CompressedPayload(version, json, gzip, brotli);
+    }
+    
+    /**
+     * The same body compressed again at the given settings; the identity bytes are shared.
+     */
+    CompressedPayload recompress(int gzipLevel, int brotliQuality) {
+        return of(version, identity, 0, gzipLevel, brotliQuality);
+    }
+    
+    boolean isCompressed() {
+        return gzip != null || brotli != null;
+    }
+    
+    String version() {
+        return version;
+    }
+    
+    byte[] identity() {
+        return identity;
+    }
+    
+    int weight() {
+        return identity.length + (gzip != null ? gzip.length : 0) + (brotli != null ? brotli.length : 0);
+    }
+    
+    /**
+     * The best encoding this payload has that the Accept-Encoding header allows, or null for identity.
+     */
+    String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        if (brotli != null && accepts(acceptEncoding, BROTLI)) {
+            return BROTLI;
+        }
+        if (gzip != null && accepts(acceptEncoding, GZIP)) {
+            return GZIP;
+        }
+        return null;
+    }
+    
+    byte[] body(String encoding) {
+        if (BROTLI.equals(encoding)) {
+            return brotli;
+        }
+        return GZIP.equals(encoding) ? gzip : identity;
+    }
+    
+    // Accepted when listed (or covered by *) without q=0.
+    private static boolean accepts(String acceptEncoding, String coding) {
+        boolean wildcard = false;
+        for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] fields = part.trim().split(";");
+            String name = fields[0].trim();
+            boolean refused = false;
+            for (int i = 1; i < fields.length; i++) {
+                String parameter = fields[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            if (name.equals(coding)) {
+                return !refused;
+            }
+            if (name.equals("*")) {
+                wildcard = !refused;
+            }
+        }
+        return wildcard;
+    }
+    
+    private static byte[] smaller(byte[] compressed, byte[] original) {
+        return compressed != null && compressed.length < original.length ? compressed : null;
+    }
+    
+    private static byte[] gzip(byte[] json, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+    
+    private static byte[] brotli(byte[] json, int quality) {
+        try {
+            return Encoder.compress(json, new Encoder.Parameters().setQuality(quality));
+        } catch (IOException e) {
+            log.warn("Brotli compression failed, serving gzip only: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static boolean loadBrotli() {
+        try {
+            Brotli4jLoader.ensureAvailability();
+            return true;
+        } catch (Throwable e) {
+            log.warn("Brotli native library unavailable, catalog responses will be gzip only: {}", e.getMessage());
+            return false;
+        }
+    }
+}
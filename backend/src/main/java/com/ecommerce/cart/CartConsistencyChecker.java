@@ -0,0 +1,56 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.dto.CartConsistencyReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Verifies the running totals of in-memory carts against a full recompute from current
+ * product prices, and optionally repairs the carts that disagree.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CartConsistencyChecker {
+    
+    private final CartStore cartStore;
+    
+    public CartConsistencyReport check(boolean repair) {
+        Map<String, UserCart> carts = Map.copyOf(cartStore.activeCarts());
+        Set<Long> productIds = new HashSet<>();
+        for (UserCart cart : carts.values()) {
+            for (CartLine line : cart.snapshotLines()) {
+                productIds.add(line.getProductId());
+            }
+        }
+        Map<Long, Long> prices = cartStore.currentPrices(productIds);
+        
+        CartConsistencyReport report = new CartConsistencyReport();
+        report.setRepaired(repair);
+        carts.forEach((email, cart) -> {
+            synchronized (cart) {
+                long cached = cart.cachedTotalCents();
+                long expected = cart.recomputeTotalCents(prices);
+                report.setCartsChecked(report.getCartsChecked() + 1);
+                report.setLinesChecked(report.getLinesChecked() + cart.snapshotLines().size());
+                if (cached != expected) {
+                    report.getMismatches().add(new CartConsistencyReport.Mismatch(
+                        email, UserCart.fromCents(cached), UserCart.fromCents(expected)));
+                    if (repair) {
+                        cart.repair(prices);
+                    }
+                }
+            }
+        });
+        
+        if (!report.getMismatches().isEmpty()) {
+            log.warn("{} of {} carts had totals out of line with current prices{}",
+                report.getMismatches().size(), report.getCartsChecked(), repair ? " and were repaired" : "");
+        }
+        return report;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable snapshot of one line of a {@link UserCart}.
+ */
+@Getter
+@AllArgsConstructor
+public class CartLine {
+    private final long id;
+    private final long userId;
+    private final long productId;
+    private final int quantity;
+    private final long unitPriceCents;
+    
+    public long getTotalCents() {
+        return unitPriceCents * quantity;
+    }
+}
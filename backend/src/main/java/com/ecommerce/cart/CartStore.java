@@ -0,0 +1,286 @@
+package com.ecommerce.cart;
+
+import com.ecommerce.event.CartCheckedOutEvent;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.ProductsImportedEvent;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.CartBatchRepository;
+import com.ecommerce.repository.CartRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Keeps active carts in memory and writes them back to cart_items in coalesced batches.
+ * A cart is loaded from the table on first access, so anything flushed before a crash or
+ * restart is recovered; changes made within the last flush interval are not.
+ * Line ids are handed out here rather than by the database, which assumes one application
+ * instance owns the table, as the search index and caches already do.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CartStore {
+    
+    private static final int PRICE_BATCH_SIZE = 1000;
+    
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final CartBatchRepository cartBatchRepository;
+    private final ProductRepository productRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    private final Map<String, UserCart> carts = new ConcurrentHashMap<>();
+    private final AtomicLong lineIds = new AtomicLong();
+    private TransactionTemplate writeTransaction;
+    
+    @Value("${cart.store.idle-minutes:30}")
+    private long idleMinutes;
+    
+    @PostConstruct
+    void init() {
+        lineIds.set(cartRepository.findMaxId());
+        writeTransaction = new TransactionTemplate(transactionManager);
+        writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    public UserCart cart(String email) {
+        UserCart cart = carts.get(email);
+        if (cart == null) {
+            UserCart loaded = load(email);
+            cart = carts.putIfAbsent(email, loaded);
+            if (cart == null) {
+                cart = loaded;
+            }
+        }
+        return cart;
+    }
+    
+    public CartLine add(String email, long productId, int quantity, long unitPriceCents) {
+        return mutate(email, cart -> cart.add(productId, quantity, unitPriceCents, lineIds::incrementAndGet));
+    }
+    
+    public Optional<CartLine> update(String email, long lineId, int quantity) {
+        return mutate(email, cart -> cart.update(lineId, quantity));
+    }
+    
+    public Optional<CartLine> remove(String email, long lineId) {
+        return mutate(email, cart -> cart.remove(lineId));
+    }
+    
+    public List<CartLine> clear(String email) {
+        return mutate(email, UserCart::clear);
+    }
+    
+    /**
+     * Writes the user's pending changes now, e.g. before checkout reads cart_items.
+     */
+    public void flush(String email) {
+        UserCart cart = carts.get(email);
+        if (cart != null && !write(List.of(cart), true)) {
+            throw new RuntimeException("Could not save cart");
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:1000}")
+    public void flushAll() {
+        write(carts.values(), false);
+        
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        carts.forEach((email, cart) -> {
+            synchronized (cart) {
+                if (cart.isIdleSince(cutoff) && !cart.hasPendingWrites() && !cart.writeLock().isLocked()) {
+                    cart.markEvicted();
+                    carts.remove(email, cart);
+                }
+            }
+        });
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        write(carts.values(), true);
+    }
+    
+    /**
+     * Checkout deletes the rows it ordered itself; lines added or raised while it ran stay in the cart.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCheckedOut(CartCheckedOutEvent event) {
+        UserCart cart = carts.get(event.getEmail());
+        if (cart != null) {
+            cart.checkedOut(event.getOrderedLines());
+        }
+    }
+    
+    /**
+     * Reprices every in-memory cart holding a changed product. Carts that are not loaded
+     * pick up current prices when they are.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Map<Long, Long> prices = new HashMap<>();
+        for (Product product : event.getProducts()) {
+            prices.put(product.getId(), UserCart.unitPriceCents(product.getPrice(), product.getDiscountPrice()));
+        }
+        int repriced = 0;
+        for (UserCart cart : carts.values()) {
+            if (cart.reprice(prices)) {
+                repriced++;
+            }
+        }
+        if (repriced > 0) {
+            log.info("Repriced {} carts after a change to {} products", repriced, prices.size());
+        }
+    }
+    
+    /**
+     * An import does not say which products it touched, so every product in a loaded cart is
+     * repriced from the table.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        Set<Long> productIds = new HashSet<>();
+        for (UserCart cart : carts.values()) {
+            for (CartLine line : cart.snapshotLines()) {
+                productIds.add(line.getProductId());
+            }
+        }
+        Map<Long, Long> prices = currentPrices(productIds);
+        int repriced = 0;
+        for (UserCart cart : carts.values()) {
+            if (cart.reprice(prices)) {
+                repriced++;
+            }
+        }
+        if (repriced > 0) {
+            log.info("Repriced {} carts after an import of {} products", repriced, event.getProductCount());
+        }
+    }
+    
+    /**
+     * Unit prices in cents of the given products as currently stored, read in batches.
+     */
+    public Map<Long, Long> currentPrices(Set<Long> productIds) {
+        Map<Long, Long> prices = new HashMap<>();
+        List<Long> ids = new ArrayList<>(productIds);
+        for (int from = 0; from < ids.size(); from += PRICE_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + PRICE_BATCH_SIZE));
+            for (Product product : productRepository.findAllById(batch)) {
+                prices.put(product.getId(), UserCart.unitPriceCents(product.getPrice(), product.getDiscountPrice()));
+            }
+        }
+        return prices;
+    }
+    
+    public Map<String, UserCart> activeCarts() {
+        return Collections.unmodifiableMap(carts);
+    }
+    
+    public int size() {
+        return carts.size();
+    }
+    
+    private <T> T mutate(String email, Function<UserCart, T> change) {
+        while (true) {
+            UserCart cart = cart(email);
+            synchronized (cart) {
+                if (!cart.isEvicted()) {
+                    return change.apply(cart);
+                }
+            }
+        }
+    }
+    
+    private UserCart load(String email) {
+        User user = userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+        UserCart cart = new UserCart(user.getId());
+        for (CartItem item : cartRepository.findWithProductByUser(user)) {
+            Product product = item.getProduct();
+            cart.restore(item.getId(), product.getId(), item.getQuantity(),
+                UserCart.unitPriceCents(product.getPrice(), product.getDiscountPrice()));
+        }
+        return cart;
+    }
+    
+    /**
+     * Each cart is written by one caller at a time, so two drains of the same line can never commit
+     * out of order. With wait, a write already in flight is waited for, so the rows are committed on
+     * return; without it, clean carts and carts another writer holds are left for the next flush.
+     */
+    private boolean write(Collection<UserCart> candidates, boolean wait) {
+        List<UserCart> locked = new ArrayList<>();
+        try {
+            for (UserCart cart : candidates) {
+                if (wait) {
+                    cart.writeLock().lock();
+                    locked.add(cart);
+                } else if (cart.hasPendingWrites() && cart.writeLock().tryLock()) {
+                    locked.add(cart);
+                }
+            }
+            return writeLocked(locked);
+        } finally {
+            locked.forEach(cart -> cart.writeLock().unlock());
+        }
+    }
+    
+    private boolean writeLocked(Collection<UserCart> dirty) {
+        Map<UserCart, UserCart.PendingWrites> drained = new IdentityHashMap<>();
+        List<CartLine> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (UserCart cart : dirty) {
+            UserCart.PendingWrites pending = cart.drain();
+            if (!pending.isEmpty()) {
+                drained.put(cart, pending);
+                upserts.addAll(pending.getUpserts());
+                deletes.addAll(pending.getDeletes());
+            }
+        }
+        if (drained.isEmpty()) {
+            return true;
+        }
+        
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                if (!deletes.isEmpty()) {
+                    cartBatchRepository.deleteLines(deletes);
+                }
+                if (!upserts.isEmpty()) {
+                    cartBatchRepository.upsertLines(upserts);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            drained.forEach(UserCart::requeue);
+            log.error("Failed to write back {} cart lines, will retry", upserts.size() + deletes.size(), e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.ecommerce.cart;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * One user's cart held as parallel primitive arrays, with the line count and the total kept
+ * up to date on every mutation. Line ids are tracked as dirty or deleted until
+ * {@link CartStore} drains them into a batch write.
+ */
+public class UserCart {
+    
+    private final long userId;
+    private long[] lineIds = new long[4];
+    private long[] productIds = new long[4];
+    private int[] quantities = new int[4];
+    private long[] unitPrices = new long[4];
+    private int size;
+    private long totalCents;
+    
+    private final Set<Long> dirtyLines = new HashSet<>();
+    private final Set<Long> deletedLines = new HashSet<>();
+    private volatile long lastAccess = System.currentTimeMillis();
+    private boolean evicted;
+    // Held from drain to commit of a write-back, apart from the monitor that guards the lines
+    private final ReentrantLock writeLock = new ReentrantLock();
+    
+    UserCart(long userId) {
+        this.userId = userId;
+    }
+    
+    public long getUserId() {
+        return userId;
+    }
+    
+    ReentrantLock writeLock() {
+        return writeLock;
+    }
+    
+    public synchronized long totalCents() {
+        touch();
+        return totalCents;
+    }
+    
+    public synchronized int lineCount() {
+        touch();
+        return size;
+    }
+    
+    public synchronized List<CartLine> lines() {
+        touch();
+        return snapshotLines();
+    }
+    
+    synchronized List<CartLine> snapshotLines() {
+        List<CartLine> lines = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            lines.add(snapshot(i));
+        }
+        return lines;
+    }
+    
+    public synchronized Optional<CartLine> line(long lineId) {
+        touch();
+        int i = indexOfLine(lineId);
+        return i < 0 ? Optional.empty() : Optional.of(snapshot(i));
+    }
+    
+    /**
+     * Loads a persisted line without marking it dirty.
+     */
+    synchronized void restore(long lineId, long productId, int quantity, long unitPriceCents) {
+        append(lineId, productId, quantity, unitPriceCents);
+    }
+    
+    synchronized CartLine add(long productId, int quantity, long unitPriceCents, LongSupplier newLineId) {
+        touch();
+        int i = indexOfProduct(productId);
+        if (i < 0) {
+            i = append(newLineId.getAsLong(), productId, quantity, unitPriceCents);
+        } else {
+            set(i, quantities[i] + quantity, unitPriceCents);
+        }
+        dirtyLines.add(lineIds[i]);
+        return snapshot(i);
+    }
+    
+    synchronized Optional<CartLine> update(long lineId, int quantity) {
+        touch();
+        int i = indexOfLine(lineId);
+        if (i < 0) {
+            return Optional.empty();
+        }
+        set(i, quantity, unitPrices[i]);
+        dirtyLines.add(lineId);
+        return Optional.of(snapshot(i));
+    }
+    
+    synchronized Optional<CartLine> remove(long lineId) {
+        touch();
+        int i = indexOfLine(lineId);
+        if (i < 0) {
+            return Optional.empty();
+        }
+        CartLine removed = snapshot(i);
+        totalCents -= removed.getTotalCents();
+        int last = --size;
+        lineIds[i] = lineIds[last];
+        productIds[i] = productIds[last];
+        quantities[i] = quantities[last];
+        unitPrices[i] = unitPrices[last];
+        dirtyLines.remove(lineId);
+        deletedLines.add(lineId);
+        return Optional.of(removed);
+    }
+    
+    synchronized List<CartLine> clear() {
+        touch();
+        List<CartLine> removed = lines();
+        for (CartLine line : removed) {
+            deletedLines.add(line.getId());
+        }
+        dirtyLines.clear();
+        size = 0;
+        totalCents = 0;
+        return removed;
+    }
+    
+    /**
+     * Takes ordered quantities off their lines. A line raised after checkout read it keeps the
+     * difference and is written back, since its row was deleted with the order.
+     */
+    synchronized void checkedOut(Map<Long, Integer> orderedQuantities) {
+        orderedQuantities.forEach((lineId, ordered) -> {
+            int i = indexOfLine(lineId);
+            if (i < 0) {
+                return;
+            }
+            if (quantities[i] > ordered) {
+                set(i, quantities[i] - ordered, unitPrices[i]);
+                dirtyLines.add(lineId);
+            } else {
+                remove(lineId);
+            }
+        });
+    }
+    
+    /**
+     * Applies new unit prices to the lines holding those products, adjusting the running
+     * total by the difference. Returns whether any line changed.
+     */
+    synchronized boolean reprice(Map<Long, Long> unitPriceCents) {
+        boolean changed = false;
+        for (int i = 0; i < size; i++) {
+            Long price = unitPriceCents.get(productIds[i]);
+            if (price != null && price != unitPrices[i]) {
+                set(i, quantities[i], price);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+    
+    synchronized long cachedTotalCents() {
+        return totalCents;
+    }
+    
+    /**
+     * Full recompute of the total from the given prices, falling back to a line's own
+     * price for products missing from the map.
+     */
+    synchronized long recomputeTotalCents(Map<Long, Long> unitPriceCents) {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += unitPriceCents.getOrDefault(productIds[i], unitPrices[i]) * quantities[i];
+        }
+        return total;
+    }
+    
+    /**
+     * Overwrites line prices and the running total with a full recompute.
+     */
+    synchronized void repair(Map<Long, Long> unitPriceCents) {
+        totalCents = 0;
+        for (int i = 0; i < size; i++) {
+            unitPrices[i] = unitPriceCents.getOrDefault(productIds[i], unitPrices[i]);
+            totalCents += unitPrices[i] * quantities[i];
+        }
+    }
+    
+    synchronized boolean hasPendingWrites() {
+        return !dirtyLines.isEmpty() || !deletedLines.isEmpty();
+    }
+    
+    /**
+     * Hands the coalesced changes to the caller: the current state of each dirty line, once,
+     * however many times it changed since the last drain.
+     */
+    synchronized PendingWrites drain() {
+        List<CartLine> upserts = new ArrayList<>(dirtyLines.size());
+        for (Long lineId : dirtyLines) {
+            int i = indexOfLine(lineId);
+            if (i >= 0) {
+                upserts.add(snapshot(i));
+            }
+        }
+        PendingWrites pending = new PendingWrites(upserts, new ArrayList<>(deletedLines));
+        dirtyLines.clear();
+        deletedLines.clear();
+        return pending;
+    }
+    
+    /**
+     * Puts back changes whose write failed; lines deleted in the meantime stay deleted.
+     */
+    synchronized void requeue(PendingWrites pending) {
+        for (CartLine line : pending.getUpserts()) {
+            if (!deletedLines.contains(line.getId()) && indexOfLine(line.getId()) >= 0) {
+                dirtyLines.add(line.getId());
+            }
+        }
+        deletedLines.addAll(pending.getDeletes());
+    }
+    
+    boolean isIdleSince(long cutoffMillis) {
+        return lastAccess < cutoffMillis;
+    }
+    
+    synchronized boolean isEvicted() {
+        return evicted;
+    }
+    
+    synchronized void markEvicted() {
+        evicted = true;
+    }
+    
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+    
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+    
+    public static long unitPriceCents(BigDecimal price, BigDecimal discountPrice) {
+        return toCents(discountPrice != null ? discountPrice : price);
+    }
+    
+    private int append(long lineId, long productId, int quantity, long unitPriceCents) {
+        if (size == lineIds.length) {
+            int capacity = size * 2;
+            lineIds = Arrays.copyOf(lineIds, capacity);
+            productIds = Arrays.copyOf(productIds, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            unitPrices = Arrays.copyOf(unitPrices, capacity);
+        }
+        int i = size++;
+        lineIds[i] = lineId;
+        productIds[i] = productId;
+        quantities[i] = quantity;
+        unitPrices[i] = unitPriceCents;
+        totalCents += unitPriceCents * quantity;
+        return i;
+    }
+    
+    private void set(int i, int quantity, long unitPriceCents) {
+        totalCents += unitPriceCents * quantity - unitPrices[i] * quantities[i];
+        quantities[i] = quantity;
+        unitPrices[i] = unitPriceCents;
+    }
+    
+    private int indexOfLine(long lineId) {
+        for (int i = 0; i < size; i++) {
+            if (lineIds[i] == lineId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private int indexOfProduct(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private CartLine snapshot(int i) {
+        return new CartLine(lineIds[i], userId, productIds[i], quantities[i], unitPrices[i]);
+    }
+    
+    private void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+    
+    @Getter
+    @AllArgsConstructor
+    static final class PendingWrites {
+        private final List<CartLine> upserts;
+        private final List<Long> deletes;
+        
+        boolean isEmpty() {
+            return upserts.isEmpty() && deletes.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.repository.ProductCardRow;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CardSlice {
+    private final List<ProductCardRow> rows;
+    private final long total;
+}
@@ -0,0 +1,401 @@
+package com.ecommerce.catalog;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Roaring-style bitmap over non-negative ints. Values are grouped by their high 16 bits; each
+ * group's low 16 bits live in a sorted char[] while the group holds at most 4096 values (2 bytes
+ * per value) and in a 1024-word bitmap (a flat 8 KB) once denser, so sparse attribute values
+ * cost little and dense ones stay fast to intersect. Covers what the catalog index needs: point
+ * updates, intersection, union, cardinality and ascending iteration. Not thread-safe.
+ */
+final class CompressedBitmap {
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+    
+    boolean add(int value) {
+        char high = (char) (value >>> 16);
+        int i = find(high);
+        if (i < 0) {
+            i = -i - 1;
+            insert(i, high, new Container(new char[4], 0));
+        }
+        return containers[i].add((char) value);
+    }
+    
+    boolean remove(int value) {
+        int i = find((char) (value >>> 16));
+        if (i < 0 || !containers[i].remove((char) value)) {
+            return false;
+        }
+        if (containers[i].cardinality == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        }
+        return true;
+    }
+    
+    boolean contains(int value) {
+        int i = find((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+    
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality;
+        }
+        return cardinality;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+    
+    CompressedBitmap filter(IntPredicate predicate) {
+        CompressedBitmap result = new CompressedBitmap();
+        forEach(value -> {
+            if (predicate.test(value)) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Approximate heap footprint, including unused array capacity.
+     */
+    long sizeInBytes() {
+        long bytes = 32 + 2L * keys.length + 8L * containers.length;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+    
+    static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container container = Container.and(a.containers[i], b.containers[j]);
+                if (container != null) {
+                    result.insert(result.size, a.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    static int andCardinality(CompressedBitmap a, CompressedBitmap b) {
+        int cardinality = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += Container.andCardinality(a.containers[i], b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return cardinality;
+    }
+    
+    static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.insert(result.size, a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.insert(result.size, b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.insert(result.size, a.keys[i], Container.or(a.containers[i], b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    private int find(char high) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < high) {
+                lo = mid + 1;
+            } else if (keys[mid] > high) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+    
+    private void insert(int i, char high, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = container;
+        size++;
+    }
+    
+    /**
+     * The low 16 bits of one group: a sorted array while sparse, a bitmap once dense.
+     */
+    private static final class Container {
+        private char[] values;
+        private long[] words;
+        private int cardinality;
+        
+        Container(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+        
+        Container(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+        
+        boolean contains(char low) {
+            if (words != null) {
+                return (words[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+        
+        boolean add(char low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) != 0) {
+                    return false;
+                }
+                words[low >>> 6] |= bit;
+                cardinality++;
+                return true;
+            }
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i >= 0) {
+                return false;
+            }
+            if (cardinality == ARRAY_MAX) {
+                toWords();
+                return add(low);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = low;
+            cardinality++;
+            return true;
+        }
+        
+        boolean remove(char low) {
+            if (words != null) {
+                long bit = 1L << low;
+                if ((words[low >>> 6] & bit) == 0) {
+                    return false;
+                }
+                words[low >>> 6] &= ~bit;
+                if (--cardinality <= ARRAY_MAX) {
+                    toValues();
+                }
+                return true;
+            }
+            int i = Arrays.binarySearch(values, 0, cardinality, low);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+            cardinality--;
+            return true;
+        }
+        
+        void forEach(int base, IntConsumer action) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    action.accept(base | values[i]);
+                }
+                return;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+        
+        long sizeInBytes() {
+            return 24 + (words != null ? 16 + 8L * words.length : 16 + 2L * values.length);
+        }
+        
+        Container copy() {
+            return words != null
+                ? new Container(words.clone(), cardinality)
+                : new Container(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+        
+        static Container and(Container a, Container b) {
+            if (a.words != null && b.words != null) {
+                long[] words = new long[WORDS];
+                int cardinality = 0;
+                for (int w = 0; w < WORDS; w++) {
+                    words[w] = a.words[w] & b.words[w];
+                    cardinality += Long.bitCount(words[w]);
+                }
+                if (cardinality == 0) {
+                    return null;
+                }
+                Container result = new Container(words, cardinality);
+                if (cardinality <= ARRAY_MAX) {
+                    result.toValues();
+                }
+                return result;
+            }
+            if (a.words != null) {
+                return and(b, a);
+            }
+            char[] values = new char[a.cardinality];
+            int n = 0;
+            if (b.words != null) {
+                for (int i = 0; i < a.cardinality; i++) {
+                    if (b.contains(a.values[i])) {
+                        values[n++] = a.values[i];
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < a.cardinality && j < b.cardinality) {
+                    if (a.values[i] < b.values[j]) {
+                        i++;
+                    } else if (a.values[i] > b.values[j]) {
+                        j++;
+                    } else {
+                        values[n++] = a.values[i];
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return n == 0 ? null : new Container(Arrays.copyOf(values, Math.max(4, n)), n);
+        }
+        
+        static int andCardinality(Container a, Container b) {
+            if (a.words != null && b.words != null) {
+                int cardinality = 0;
+                for (int w = 0; w < WORDS; w++) {
+                    cardinality += Long.bitCount(a.words[w] & b.words[w]);
+                }
+                return cardinality;
+            }
+            if (a.words != null) {
+                return andCardinality(b, a);
+            }
+            int cardinality = 0;
+            if (b.words != null) {
+                for (int i = 0; i < a.cardinality; i++) {
+                    if (b.contains(a.values[i])) {
+                        cardinality++;
+                    }
+                }
+                return cardinality;
+            }
+            int i = 0;
+            int j = 0;
+            while (i < a.cardinality && j < b.cardinality) {
+                if (a.values[i] < b.values[j]) {
+                    i++;
+                } else if (a.values[i] > b.values[j]) {
+                    j++;
+                } else {
+                    cardinality++;
+                    i++;
+                    j++;
+                }
+            }
+            return cardinality;
+        }
+        
+        static Container or(Container a, Container b) {
+            Container result = a.copy();
+            if (b.words != null) {
+                if (result.words == null) {
+                    result.toWords();
+                }
+                int cardinality = 0;
+                for (int w = 0; w < WORDS; w++) {
+                    result.words[w] |= b.words[w];
+                    cardinality += Long.bitCount(result.words[w]);
+                }
+                result.cardinality = cardinality;
+            } else {
+                for (int i = 0; i < b.cardinality; i++) {
+                    result.add(b.values[i]);
+                }
+            }
+            return result;
+        }
+        
+        private void toWords() {
+            long[] bits = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                bits[values[i] >>> 6] |= 1L << values[i];
+            }
+            words = bits;
+            values = null;
+        }
+        
+        private void toValues() {
+            char[] sparse = new char[Math.max(4, cardinality)];
+            int n = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    sparse[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            values = sparse;
+            words = null;
+        }
+    }
+}
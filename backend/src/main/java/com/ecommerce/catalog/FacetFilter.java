@@ -0,0 +1,16 @@
+package com.ecommerce.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Selected facet values for a browse request; null (or false) leaves that facet unfiltered.
+ */
+@Getter
+@AllArgsConstructor
+public class FacetFilter {
+    private final String category;
+    private final String brand;
+    private final String priceRange;
+    private final boolean inStockOnly;
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.repository.ProductCardRow;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class FacetedSlice {
+    private final List<ProductCardRow> rows;
+    private final long total;
+    private final Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductCardRow;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * In-memory {@link ProductCardRow}, materialized from {@link ProductCardColumns} for one result.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCard implements ProductCardRow {
+    private final Long id;
+    private final String name;
+    private final BigDecimal price;
+    private final BigDecimal discountPrice;
+    private final String imageUrl;
+    private final String category;
+    private final String brand;
+    private final Double rating;
+    private final Integer reviewCount;
+    private final Integer stockQuantity;
+    private final Boolean isFeatured;
+    private final Boolean isActive;
+    private final LocalDateTime createdAt;
+    
+    public static ProductCard of(Product product) {
+        return new ProductCard(product.getId(), product.getName(), product.getPrice(), product.getDiscountPrice(),
+            product.getImageUrl(), product.getCategory(), product.getBrand(), product.getRating(),
+            product.getReviewCount(), product.getStockQuantity(), product.getIsFeatured(), product.getIsActive(),
+            product.getCreatedAt());
+    }
+    
+    public static boolean inStock(Integer stockQuantity) {
+        return stockQuantity != null && stockQuantity > 0;
+    }
+}
@@ -0,0 +1,369 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.repository.ProductCardRow;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Listing fields of the active catalog in parallel arrays indexed by ordinal. Sorted orderings
+ * are built on first use per (sort, filter), held in a cache bounded by their total size and
+ * dropped when a sort or filter key changes, so a page is an array slice. Facet bitsets
+ * ({@link ProductFacets}) are maintained alongside for filtered browsing. Not thread-safe for
+ * writes, callers hold a lock; reads may run concurrently with each other.
+ */
+final class ProductCardColumns {
+    static final List<String> SORT_FIELDS = List.of("createdAt", "price", "name", "rating", "reviewCount", "id");
+    
+    private static final long NO_PRICE = Long.MIN_VALUE;
+    private static final int MIN_DEAD_FOR_COMPACTION = 1024;
+    private static final int SORT_MATCHES_DIVISOR = 16;
+    static final long DEFAULT_ORDERING_CACHE_BYTES = 32L * 1024 * 1024;
+    
+    private long[] ids = new long[64];
+    private String[] names = new String[64];
+    private long[] prices = new long[64];
+    private long[] discountPrices = new long[64];
+    private String[] imageUrls = new String[64];
+    private String[] categories = new String[64];
+    private String[] brands = new String[64];
+    private double[] ratings = new double[64];
+    private int[] reviewCounts = new int[64];
+    private int[] stock = new int[64];
+    private LocalDateTime[] createdAt = new LocalDateTime[64];
+    private BitSet featured = new BitSet();
+    private BitSet live = new BitSet();
+    private ProductFacets facets = new ProductFacets();
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private final Map<String, String> interned = new HashMap<>();
+    private final Cache<String, int[]> orderings;
+    private int count;
+    private int liveCount;
+    
+    ProductCardColumns() {
+        this(DEFAULT_ORDERING_CACHE_BYTES);
+    }
+    
+    ProductCardColumns(long orderingCacheBytes) {
+        orderings = Caffeine.newBuilder()
+            .maximumWeight(orderingCacheBytes)
+            .weigher((String key, int[] ordering) -> 16 + 4 * ordering.length)
+            .build();
+    }
+    
+    int size() {
+        return liveCount;
+    }
+    
+    /**
+     * Inserts, updates or (for an inactive product) removes a card.
+     */
+    void put(ProductCardRow row) {
+        if (!Boolean.TRUE.equals(row.getIsActive())) {
+            remove(row.getId());
+            return;
+        }
+        
+        Integer existing = ordinalById.get(row.getId());
+        int ordinal;
+        boolean keysChanged;
+        if (existing == null) {
+            ordinal = count++;
+            if (ordinal == ids.length) {
+                grow(ordinal * 2);
+            }
+            ids[ordinal] = row.getId();
+            live.set(ordinal);
+            liveCount++;
+            ordinalById.put(row.getId(), ordinal);
+            keysChanged = true;
+        } else {
+            ordinal = existing;
+            facets.remove(ordinal, categories[ordinal], brands[ordinal], effectivePrice(ordinal));
+            keysChanged = !Objects.equals(names[ordinal], row.getName())
+                || prices[ordinal] != cents(row.getPrice())
+                || ratings[ordinal] != rating(row.getRating())
+                || reviewCounts[ordinal] != intValue(row.getReviewCount())
+                || !Objects.equals(categories[ordinal], row.getCategory())
+                || !Objects.equals(brands[ordinal], row.getBrand())
+                || featured.get(ordinal) != Boolean.TRUE.equals(row.getIsFeatured())
+                || !Objects.equals(createdAt[ordinal], row.getCreatedAt());
+        }
+        
+        names[ordinal] = row.getName();
+        prices[ordinal] = cents(row.getPrice());
+        discountPrices[ordinal] = cents(row.getDiscountPrice());
+        imageUrls[ordinal] = row.getImageUrl();
+        categories[ordinal] = intern(row.getCategory());
+        brands[ordinal] = intern(row.getBrand());
+        ratings[ordinal] = rating(row.getRating());
+        reviewCounts[ordinal] = intValue(row.getReviewCount());
+        stock[ordinal] = intValue(row.getStockQuantity());
+        featured.set(ordinal, Boolean.TRUE.equals(row.getIsFeatured()));
+        createdAt[ordinal] = row.getCreatedAt();
+        facets.add(ordinal, categories[ordinal], brands[ordinal], effectivePrice(ordinal), stock[ordinal],
+            ratings[ordinal], featured.get(ordinal));
+        
+        if (keysChanged) {
+            orderings.invalidateAll();
+        }
+    }
+    
+    void remove(long id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        facets.remove(ordinal, categories[ordinal], brands[ordinal], effectivePrice(ordinal));
+        live.clear(ordinal);
+        liveCount--;
+        names[ordinal] = null;
+        imageUrls[ordinal] = null;
+        orderings.invalidateAll();
+        
+        int dead = count - liveCount;
+        if (dead >= MIN_DEAD_FOR_COMPACTION && dead > liveCount) {
+            compact();
+        }
+    }
+    
+    boolean contains(long id) {
+        return ordinalById.containsKey(id);
+    }
+    
+    /**
+     * Fills {@code out} with one page of the active cards in the given order, optionally
+     * restricted to a category or to featured products, and returns the total match count.
+     */
+    int page(String sortField, boolean ascending, String category, boolean featuredOnly,
+             int offset, int limit, List<ProductCardRow> out) {
+        // Unknown categories match nothing; they must not each build and cache an (empty) ordering
+        if (category != null && !facets.hasCategory(category)) {
+            return 0;
+        }
+        int[] ordering = ordering(sortField, ascending, category, featuredOnly);
+        for (int i = offset; i < ordering.length && out.size() < limit; i++) {
+            out.add(card(ordering[i]));
+        }
+        return ordering.length;
+    }
+    
+    /**
+     * Seek pagination over (createdAt DESC, id DESC): cards strictly after the given position.
+     */
+    void after(LocalDateTime afterCreatedAt, long afterId, int limit, List<ProductCardRow> out) {
+        int[] ordering = ordering("createdAt", false, null, false);
+        int lo = 0;
+        int hi = ordering.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int ordinal = ordering[mid];
+            int cmp = compareNullable(createdAt[ordinal], afterCreatedAt);
+            if (cmp == 0) {
+                cmp = Long.compare(ids[ordinal], afterId);
+            }
+            if (cmp >= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int i = lo; i < ordering.length && out.size() < limit; i++) {
+            out.add(card(ordering[i]));
+        }
+    }
+    
+    /**
+     * One page of the cards matching {@code filter} in the given order, with the total and the
+     * facet counts for the same selection.
+     */
+    FacetedSlice browse(FacetFilter filter, String sortField, boolean ascending, int offset, int limit) {
+        CompressedBitmap matched = facets.match(filter);
+        List<ProductCardRow> rows = new ArrayList<>();
+        int total = sortedPage(matched, sortField, ascending, offset, limit, rows);
+        return new FacetedSlice(rows, total, facets.counts(filter));
+    }
+    
+    /**
+     * Fills {@code out} with one page of the cards matching a combined filter in the given order
+     * and returns the total match count.
+     */
+    int filter(ProductFilter filter, String sortField, boolean ascending, int offset, int limit,
+               List<ProductCardRow> out) {
+        return sortedPage(facets.match(filter), sortField, ascending, offset, limit, out);
+    }
+    
+    long indexSizeInBytes() {
+        return facets.sizeInBytes();
+    }
+    
+    List<String> categories() {
+        return facets.categories();
+    }
+    
+    ProductCardRow get(long id) {
+        Integer ordinal = ordinalById.get(id);
+        return ordinal != null ? card(ordinal) : null;
+    }
+    
+    // A small match set is sorted directly; a large one is read off the cached full ordering.
+    private int sortedPage(CompressedBitmap matched, String sortField, boolean ascending, int offset, int limit,
+                           List<ProductCardRow> out) {
+        int total = matched.cardinality();
+        if (offset >= total) {
+            return total;
+        }
+        if (total <= liveCount / SORT_MATCHES_DIVISOR) {
+            Integer[] ordinals = new Integer[total];
+            int[] n = {0};
+            matched.forEach(ordinal -> ordinals[n[0]++] = ordinal);
+            Arrays.sort(ordinals, comparator(sortField, ascending));
+            for (int i = offset; i < total && out.size() < limit; i++) {
+                out.add(card(ordinals[i]));
+            }
+            return total;
+        }
+        int[] ordering = ordering(sortField, ascending, null, false);
+        int skipped = 0;
+        for (int i = 0; i < ordering.length && out.size() < limit; i++) {
+            if (matched.contains(ordering[i]) && skipped++ >= offset) {
+                out.add(card(ordering[i]));
+            }
+        }
+        return total;
+    }
+    
+    private int[] ordering(String sortField, boolean ascending, String category, boolean featuredOnly) {
+        String key = sortField + (ascending ? ":asc:" : ":desc:") + (featuredOnly ? "featured" : "")
+            + ":" + (category != null ? category : "");
+        return orderings.get(key, k -> {
+            Integer[] ordinals = new Integer[liveCount];
+            int n = 0;
+            for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+                if ((category == null || category.equals(categories[ordinal]))
+                    && (!featuredOnly || featured.get(ordinal))) {
+                    ordinals[n++] = ordinal;
+                }
+            }
+            Arrays.sort(ordinals, 0, n, comparator(sortField, ascending));
+            int[] ordering = new int[n];
+            for (int i = 0; i < n; i++) {
+                ordering[i] = ordinals[i];
+            }
+            return ordering;
+        });
+    }
+    
+    private Comparator<Integer> comparator(String sortField, boolean ascending) {
+        Comparator<Integer> comparator = comparator(sortField).thenComparingLong(ordinal -> ids[ordinal]);
+        return ascending ? comparator : comparator.reversed();
+    }
+    
+    private Comparator<Integer> comparator(String sortField) {
+        switch (sortField) {
+            case "createdAt":
+                return (a, b) -> compareNullable(createdAt[a], createdAt[b]);
+            case "price":
+                return Comparator.comparingLong(ordinal -> prices[ordinal]);
+            case "name":
+                return (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(
+                    Objects.toString(names[a], ""), Objects.toString(names[b], ""));
+            case "rating":
+                return Comparator.comparingDouble(ordinal -> ratings[ordinal]);
+            case "reviewCount":
+                return Comparator.comparingInt(ordinal -> reviewCounts[ordinal]);
+            case "id":
+                return (a, b) -> 0;
+            default:
+                throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+        }
+    }
+    
+    private ProductCardRow card(int ordinal) {
+        return new ProductCard(ids[ordinal], names[ordinal], price(prices[ordinal]), price(discountPrices[ordinal]),
+            imageUrls[ordinal], categories[ordinal], brands[ordinal], ratings[ordinal], reviewCounts[ordinal],
+            stock[ordinal], featured.get(ordinal), true, createdAt[ordinal]);
+    }
+    
+    private void compact() {
+        int size = Math.max(64, liveCount);
+        ProductCardColumns compacted = new ProductCardColumns();
+        compacted.grow(size);
+        for (int ordinal = live.nextSetBit(0); ordinal >= 0; ordinal = live.nextSetBit(ordinal + 1)) {
+            compacted.put(card(ordinal));
+        }
+        ids = compacted.ids;
+        names = compacted.names;
+        prices = compacted.prices;
+        discountPrices = compacted.discountPrices;
+        imageUrls = compacted.imageUrls;
+        categories = compacted.categories;
+        brands = compacted.brands;
+        ratings = compacted.ratings;
+        reviewCounts = compacted.reviewCounts;
+        stock = compacted.stock;
+        createdAt = compacted.createdAt;
+        featured = compacted.featured;
+        live = compacted.live;
+        facets = compacted.facets;
+        count = compacted.count;
+        ordinalById.clear();
+        ordinalById.putAll(compacted.ordinalById);
+        orderings.invalidateAll();
+    }
+    
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        discountPrices = Arrays.copyOf(discountPrices, capacity);
+        imageUrls = Arrays.copyOf(imageUrls, capacity);
+        categories = Arrays.copyOf(categories, capacity);
+        brands = Arrays.copyOf(brands, capacity);
+        ratings = Arrays.copyOf(ratings, capacity);
+        reviewCounts = Arrays.copyOf(reviewCounts, capacity);
+        stock = Arrays.copyOf(stock, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+    }
+    
+    private long effectivePrice(int ordinal) {
+        return discountPrices[ordinal] != NO_PRICE ? discountPrices[ordinal] : prices[ordinal];
+    }
+    
+    private String intern(String value) {
+        return value == null ? null : interned.computeIfAbsent(value, v -> v);
+    }
+    
+    private static int compareNullable(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+    
+    private static long cents(BigDecimal amount) {
+        return amount == null ? NO_PRICE : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    private static BigDecimal price(long cents) {
+        return cents == NO_PRICE ? null : BigDecimal.valueOf(cents, 2);
+    }
+    
+    private static double rating(Double rating) {
+        return rating != null ? rating : 0.0;
+    }
+    
+    private static int intValue(Integer value) {
+        return value != null ? value : 0;
+    }
+}
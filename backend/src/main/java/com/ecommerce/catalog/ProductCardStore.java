@@ -0,0 +1,263 @@
+package com.ecommerce.catalog;
+
+import com.ecommerce.cache.CatalogVersion;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.ProductStockChangedEvent;
+import com.ecommerce.event.ProductsImportedEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductCardRow;
+import com.ecommerce.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Listing read model: every active product's card fields, kept in memory and maintained from
+ * product events, so list endpoints neither query the database nor carry descriptions.
+ * Product writes apply immediately; stock movements are coalesced and refreshed with one
+ * narrow query per burst. Listings only show whether a product is in stock, so a refresh moves
+ * the catalog version only when that flips.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCardStore implements MeterBinder {
+    
+    private static final int LOAD_BATCH_SIZE = 1000;
+    
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    
+    @Value("${catalog.cards.stock-refresh-delay-ms:500}")
+    private long stockRefreshDelayMs;
+    
+    @Value("${catalog.cards.ordering-cache-max-bytes:33554432}")
+    private long orderingCacheMaxBytes;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ProductCardColumns columns = new ProductCardColumns();
+    private volatile boolean ready;
+    
+    private final Set<Long> staleStock = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "card-stock-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public boolean supportsSort(String sortField) {
+        return ProductCardColumns.SORT_FIELDS.contains(sortField);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        long start = System.currentTimeMillis();
+        ProductCardColumns fresh = new ProductCardColumns(orderingCacheMaxBytes);
+        Long afterId = 0L;
+        List<ProductCardRow> batch;
+        do {
+            batch = productRepository.findActiveCardsAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ProductCardRow row : batch) {
+                fresh.put(row);
+                afterId = row.getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        
+        lock.writeLock().lock();
+        try {
+            columns = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        catalogVersion.loaded(productRepository.findLastUpdatedAt());
+        long indexBytes = fresh.indexSizeInBytes();
+        log.info("Product card store loaded {} products in {} ms, filter index {} KB",
+            fresh.size(), System.currentTimeMillis() - start, indexBytes / 1024);
+        long budget = ProductFacets.BUDGET_BYTES_PER_100K * Math.max(1, (fresh.size() + 99_999) / 100_000);
+        if (indexBytes > budget) {
+            log.warn("Product filter index uses {} KB, over its budget of {} KB", indexBytes / 1024, budget / 1024);
+        }
+    }
+    
+    public CardSlice page(String sortField, boolean ascending, String category, boolean featuredOnly,
+                          int offset, int limit) {
+        List<ProductCardRow> rows = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            int total = columns.page(sortField, ascending, category, featuredOnly, offset, limit, rows);
+            return new CardSlice(rows, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public List<ProductCardRow> after(LocalDateTime createdAt, long id, int limit) {
+        List<ProductCardRow> rows = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            columns.after(createdAt, id, limit, rows);
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public FacetedSlice browse(FacetFilter filter, String sortField, boolean ascending, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return columns.browse(filter, sortField, ascending, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public CardSlice filter(ProductFilter filter, String sortField, boolean ascending, int offset, int limit) {
+        List<ProductCardRow> rows = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            int total = columns.filter(filter, sortField, ascending, offset, limit, rows);
+            return new CardSlice(rows, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long indexSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return columns.indexSizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.index.memory", this, ProductCardStore::indexSizeInBytes)
+            .description("Approximate heap used by the product filter and facet index")
+            .baseUnit("bytes")
+            .register(registry);
+    }
+    
+    public List<String> categories() {
+        lock.readLock().lock();
+        try {
+            return columns.categories();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Cards for the given ids in the given order; ids not in the active catalog are skipped.
+     */
+    public List<ProductCardRow> cards(List<Long> ids) {
+        List<ProductCardRow> rows = new ArrayList<>(ids.size());
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                ProductCardRow row = columns.get(id);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getProducts().forEach(product -> columns.put(ProductCard.of(product)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        catalogVersion.catalogChanged(event.getProducts().stream()
+            .map(Product::getUpdatedAt)
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .orElse(null));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        initialize();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        staleStock.addAll(event.getProductIds());
+        if (refreshPending.compareAndSet(false, true)) {
+            refresher.schedule(this::refreshStock, stockRefreshDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+    
+    void refreshStock() {
+        refreshPending.set(false);
+        List<Long> ids = new ArrayList<>(staleStock);
+        staleStock.removeAll(ids);
+        boolean availabilityChanged = false;
+        try {
+            for (int from = 0; from < ids.size(); from += LOAD_BATCH_SIZE) {
+                List<ProductCardRow> rows = productRepository.findCardsByIds(
+                    ids.subList(from, Math.min(ids.size(), from + LOAD_BATCH_SIZE)));
+                lock.writeLock().lock();
+                try {
+                    for (ProductCardRow row : rows) {
+                        availabilityChanged |= availabilityFlipped(columns.get(row.getId()), row);
+                        columns.put(row);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            staleStock.addAll(ids);
+            log.error("Product card stock refresh failed: ", e);
+        }
+        // Also after a partial failure: the retry compares against rows already applied
+        if (availabilityChanged) {
+            catalogVersion.catalogChanged(null);
+        }
+    }
+    
+    private static boolean availabilityFlipped(ProductCardRow previous, ProductCardRow current) {
+        return previous == null
+            || ProductCard.inStock(previous.getStockQuantity()) != ProductCard.inStock(current.getStockQuantity());
+    }
+}
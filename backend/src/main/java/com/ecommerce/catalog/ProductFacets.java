@@ -0,0 +1,266 @@
+package com.ecommerce.catalog;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Attribute index over card ordinals. Categories, brands, price buckets, stock and featured
+ * flags are {@link CompressedBitmap}s per value, so filters are intersections and facet counts are
+ * intersection cardinalities; effective price and rating are {@link RangeIndex}es.
+ * Owned by {@link ProductCardColumns} and guarded by the same lock.
+ * <p>
+ * Memory budget: 5 MB per 100k active products. Each product sits in one category, brand and
+ * price bucket bitmap (2 bytes apiece while a value is sparse, at most 8 KB per 65536 ordinals
+ * once dense) and costs 12 bytes in each range index, about 3.5 MB per 100k in total.
+ * {@link #sizeInBytes()} reports the actual figure.
+ */
+final class ProductFacets {
+    static final String CATEGORY = "category";
+    static final String BRAND = "brand";
+    static final String PRICE = "price";
+    static final String AVAILABILITY = "availability";
+    static final long BUDGET_BYTES_PER_100K = 5L * 1024 * 1024;
+    
+    // Upper bounds (exclusive, in cents) of the price buckets; the last bucket is open-ended.
+    private static final long[] PRICE_BOUNDS = {2500, 5000, 10000, 25000, 50000, 100000};
+    private static final List<String> PRICE_BUCKETS =
+        List.of("0-25", "25-50", "50-100", "100-250", "250-500", "500-1000", "1000+");
+    
+    private final CompressedBitmap all = new CompressedBitmap();
+    private final Map<String, CompressedBitmap> categories = new TreeMap<>();
+    private final Map<String, CompressedBitmap> brands = new TreeMap<>();
+    private final CompressedBitmap[] prices = new CompressedBitmap[PRICE_BUCKETS.size()];
+    private final CompressedBitmap inStock = new CompressedBitmap();
+    private final CompressedBitmap featured = new CompressedBitmap();
+    private final RangeIndex priceCents = new RangeIndex();
+    private final RangeIndex ratingHundredths = new RangeIndex();
+    
+    ProductFacets() {
+        for (int i = 0; i < prices.length; i++) {
+            prices[i] = new CompressedBitmap();
+        }
+    }
+    
+    void add(int ordinal, String category, String brand, long effectivePriceCents, int stock,
+             double rating, boolean isFeatured) {
+        all.add(ordinal);
+        if (category != null) {
+            categories.computeIfAbsent(category, k -> new CompressedBitmap()).add(ordinal);
+        }
+        if (brand != null) {
+            brands.computeIfAbsent(brand, k -> new CompressedBitmap()).add(ordinal);
+        }
+        prices[bucket(effectivePriceCents)].add(ordinal);
+        if (stock > 0) {
+            inStock.add(ordinal);
+        }
+        if (isFeatured) {
+            featured.add(ordinal);
+        }
+        priceCents.set(ordinal, (int) Math.min(Integer.MAX_VALUE, Math.max(0, effectivePriceCents)));
+        ratingHundredths.set(ordinal, (int) Math.round(rating * 100));
+    }
+    
+    void remove(int ordinal, String category, String brand, long effectivePriceCents) {
+        all.remove(ordinal);
+        clear(categories, category, ordinal);
+        clear(brands, brand, ordinal);
+        prices[bucket(effectivePriceCents)].remove(ordinal);
+        inStock.remove(ordinal);
+        featured.remove(ordinal);
+        priceCents.remove(ordinal);
+        ratingHundredths.remove(ordinal);
+    }
+    
+    boolean hasCategory(String category) {
+        return categories.containsKey(category);
+    }
+    
+    List<String> categories() {
+        return new ArrayList<>(categories.keySet());
+    }
+    
+    /**
+     * Ordinals matching every selected facet value. The result may be shared; do not modify it.
+     */
+    CompressedBitmap match(FacetFilter filter) {
+        return matchExcept(filter, null);
+    }
+    
+    /**
+     * Ordinals matching a combined filter. Value clauses are intersected smallest first; each
+     * range clause is then applied either by intersecting its slice of the range index or, when
+     * the candidates are already fewer than the slice, by checking the candidates' values.
+     * The result may be shared; do not modify it.
+     */
+    CompressedBitmap match(ProductFilter filter) {
+        List<CompressedBitmap> clauses = new ArrayList<>();
+        if (filter.getCategories() != null && !filter.getCategories().isEmpty()) {
+            clauses.add(union(categories, filter.getCategories()));
+        }
+        if (filter.getBrands() != null && !filter.getBrands().isEmpty()) {
+            clauses.add(union(brands, filter.getBrands()));
+        }
+        if (filter.isInStockOnly()) {
+            clauses.add(inStock);
+        }
+        if (filter.isFeaturedOnly()) {
+            clauses.add(featured);
+        }
+        CompressedBitmap candidates = clauses.isEmpty() ? null : intersect(clauses);
+        
+        if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+            int min = filter.getMinPrice() != null ? cents(filter.getMinPrice(), RoundingMode.CEILING) : 0;
+            int max = filter.getMaxPrice() != null ? cents(filter.getMaxPrice(), RoundingMode.FLOOR) : Integer.MAX_VALUE;
+            candidates = applyRange(candidates, priceCents, min, max);
+        }
+        if (filter.getMinRating() != null) {
+            int min = (int) Math.ceil(filter.getMinRating() * 100 - 1e-9);
+            candidates = applyRange(candidates, ratingHundredths, min, Integer.MAX_VALUE);
+        }
+        return candidates != null ? candidates : all;
+    }
+    
+    /**
+     * Counts per facet value. Each facet is counted under the other facets' selections but not
+     * its own, so the counts show what picking a different value of that facet would return.
+     */
+    Map<String, Map<String, Integer>> counts(FacetFilter filter) {
+        Map<String, Map<String, Integer>> counts = new LinkedHashMap<>();
+        counts.put(CATEGORY, countEach(categories, matchExcept(filter, CATEGORY)));
+        counts.put(BRAND, countEach(brands, matchExcept(filter, BRAND)));
+        
+        CompressedBitmap base = matchExcept(filter, PRICE);
+        Map<String, Integer> priceCounts = new LinkedHashMap<>();
+        for (int i = 0; i < prices.length; i++) {
+            priceCounts.put(PRICE_BUCKETS.get(i), CompressedBitmap.andCardinality(base, prices[i]));
+        }
+        counts.put(PRICE, priceCounts);
+        
+        base = matchExcept(filter, AVAILABILITY);
+        int available = CompressedBitmap.andCardinality(base, inStock);
+        Map<String, Integer> availability = new LinkedHashMap<>();
+        availability.put("inStock", available);
+        availability.put("outOfStock", base.cardinality() - available);
+        counts.put(AVAILABILITY, availability);
+        return counts;
+    }
+    
+    long sizeInBytes() {
+        long bytes = all.sizeInBytes() + inStock.sizeInBytes() + featured.sizeInBytes()
+            + priceCents.sizeInBytes() + ratingHundredths.sizeInBytes();
+        for (CompressedBitmap bitmap : prices) {
+            bytes += bitmap.sizeInBytes();
+        }
+        for (CompressedBitmap bitmap : categories.values()) {
+            bytes += bitmap.sizeInBytes();
+        }
+        for (CompressedBitmap bitmap : brands.values()) {
+            bytes += bitmap.sizeInBytes();
+        }
+        return bytes;
+    }
+    
+    private CompressedBitmap matchExcept(FacetFilter filter, String skipped) {
+        List<CompressedBitmap> clauses = new ArrayList<>();
+        if (filter.getCategory() != null && !CATEGORY.equals(skipped)) {
+            clauses.add(orEmpty(categories.get(filter.getCategory())));
+        }
+        if (filter.getBrand() != null && !BRAND.equals(skipped)) {
+            clauses.add(orEmpty(brands.get(filter.getBrand())));
+        }
+        if (filter.getPriceRange() != null && !PRICE.equals(skipped)) {
+            clauses.add(prices[bucketIndex(filter.getPriceRange())]);
+        }
+        if (filter.isInStockOnly() && !AVAILABILITY.equals(skipped)) {
+            clauses.add(inStock);
+        }
+        return clauses.isEmpty() ? all : intersect(clauses);
+    }
+    
+    private CompressedBitmap applyRange(CompressedBitmap candidates, RangeIndex index, int min, int max) {
+        if (candidates == null) {
+            return index.select(all, min, max);
+        }
+        if (candidates.cardinality() <= index.count(all, min, max)) {
+            return candidates.filter(ordinal -> index.matches(ordinal, min, max));
+        }
+        return CompressedBitmap.and(candidates, index.select(all, min, max));
+    }
+    
+    // Every per-value bitmap only holds live ordinals, so the intersection never needs "all".
+    private static CompressedBitmap intersect(List<CompressedBitmap> clauses) {
+        clauses.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+        CompressedBitmap result = clauses.get(0);
+        for (int i = 1; i < clauses.size() && !result.isEmpty(); i++) {
+            result = CompressedBitmap.and(result, clauses.get(i));
+        }
+        return result;
+    }
+    
+    private static CompressedBitmap union(Map<String, CompressedBitmap> values, List<String> selected) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (String value : selected) {
+            CompressedBitmap ordinals = values.get(value);
+            if (ordinals != null) {
+                result = CompressedBitmap.or(result, ordinals);
+            }
+        }
+        return result;
+    }
+    
+    private static Map<String, Integer> countEach(Map<String, CompressedBitmap> values, CompressedBitmap base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        values.forEach((value, ordinals) -> {
+            int count = CompressedBitmap.andCardinality(base, ordinals);
+            if (count > 0) {
+                counts.put(value, count);
+            }
+        });
+        return counts;
+    }
+    
+    private static CompressedBitmap orEmpty(CompressedBitmap bitmap) {
+        return bitmap != null ? bitmap : new CompressedBitmap();
+    }
+    
+    private static void clear(Map<String, CompressedBitmap> values, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        CompressedBitmap ordinals = values.get(value);
+        if (ordinals != null) {
+            ordinals.remove(ordinal);
+            if (ordinals.isEmpty()) {
+                values.remove(value);
+            }
+        }
+    }
+    
+    private static int cents(BigDecimal amount, RoundingMode rounding) {
+        BigDecimal cents = amount.movePointRight(2).setScale(0, rounding);
+        return cents.signum() < 0 ? 0 : cents.min(BigDecimal.valueOf(Integer.MAX_VALUE)).intValue();
+    }
+    
+    private static int bucket(long priceCents) {
+        int i = 0;
+        while (i < PRICE_BOUNDS.length && priceCents >= PRICE_BOUNDS[i]) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static int bucketIndex(String priceRange) {
+        int index = PRICE_BUCKETS.indexOf(priceRange);
+        if (index < 0) {
+            throw new RuntimeException("Unknown price range: " + priceRange + ", expected one of " + PRICE_BUCKETS);
+        }
+        return index;
+    }
+}
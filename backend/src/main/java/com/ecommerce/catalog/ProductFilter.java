@@ -0,0 +1,22 @@
+package com.ecommerce.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Combined product filter: values within categories or brands are alternatives, every other
+ * criterion must also hold. Prices apply to the effective price (discount price when set).
+ */
+@Getter
+@AllArgsConstructor
+public class ProductFilter {
+    private final List<String> categories;
+    private final List<String> brands;
+    private final BigDecimal minPrice;
+    private final BigDecimal maxPrice;
+    private final Double minRating;
+    private final boolean inStockOnly;
+    private final boolean featuredOnly;
+}
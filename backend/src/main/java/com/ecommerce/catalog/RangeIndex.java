@@ -0,0 +1,123 @@
+package com.ecommerce.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Sorted primitive index over one int-valued card attribute: the value of each ordinal, plus
+ * (value, ordinal) pairs sorted by value that are rebuilt on the first range query after a write.
+ * A range is then two binary searches and a slice. Writes happen under the store's write lock;
+ * concurrent readers may race to rebuild, which is serialized here.
+ */
+final class RangeIndex {
+    
+    private int[] valueByOrdinal = new int[64];
+    private volatile Sorted sorted = new Sorted(new int[0], new int[0]);
+    private volatile boolean dirty;
+    
+    void set(int ordinal, int value) {
+        if (ordinal >= valueByOrdinal.length) {
+            valueByOrdinal = Arrays.copyOf(valueByOrdinal, Math.max(ordinal + 1, valueByOrdinal.length * 2));
+        }
+        valueByOrdinal[ordinal] = value;
+        dirty = true;
+    }
+    
+    void remove(int ordinal) {
+        dirty = true;
+    }
+    
+    boolean matches(int ordinal, int min, int max) {
+        int value = valueByOrdinal[ordinal];
+        return value >= min && value <= max;
+    }
+    
+    /**
+     * Number of ordinals of {@code present} whose value lies in [min, max].
+     */
+    int count(CompressedBitmap present, int min, int max) {
+        Sorted current = sorted(present);
+        return Math.max(0, current.upperBound(max) - current.lowerBound(min));
+    }
+    
+    CompressedBitmap select(CompressedBitmap present, int min, int max) {
+        Sorted current = sorted(present);
+        int from = current.lowerBound(min);
+        int to = current.upperBound(max);
+        int[] ordinals = Arrays.copyOfRange(current.ordinals, from, Math.max(from, to));
+        Arrays.sort(ordinals);
+        CompressedBitmap result = new CompressedBitmap();
+        for (int ordinal : ordinals) {
+            result.add(ordinal);
+        }
+        return result;
+    }
+    
+    long sizeInBytes() {
+        Sorted current = sorted;
+        return 16 + 4L * valueByOrdinal.length + 32 + 4L * current.values.length + 4L * current.ordinals.length;
+    }
+    
+    private Sorted sorted(CompressedBitmap present) {
+        if (dirty) {
+            synchronized (this) {
+                if (dirty) {
+                    sorted = rebuild(present);
+                    dirty = false;
+                }
+            }
+        }
+        return sorted;
+    }
+    
+    private Sorted rebuild(CompressedBitmap present) {
+        long[] pairs = new long[present.cardinality()];
+        int[] n = {0};
+        present.forEach(ordinal -> pairs[n[0]++] = ((long) valueByOrdinal[ordinal] << 32) | ordinal);
+        Arrays.sort(pairs);
+        int[] values = new int[pairs.length];
+        int[] ordinals = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            values[i] = (int) (pairs[i] >> 32);
+            ordinals[i] = (int) pairs[i];
+        }
+        return new Sorted(values, ordinals);
+    }
+    
+    private static final class Sorted {
+        private final int[] values;
+        private final int[] ordinals;
+        
+        Sorted(int[] values, int[] ordinals) {
+            this.values = values;
+            this.ordinals = ordinals;
+        }
+        
+        int lowerBound(int min) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] < min) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+        
+        int upperBound(int max) {
+            int lo = 0;
+            int hi = values.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (values[mid] <= max) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many threads may hold or wait on a pooled connection at once. With virtual threads
+ * the request concurrency is effectively unbounded, and thousands of callers spinning on the
+ * Hikari handoff queue cost more than queueing fairly here and failing fast on timeout.
+ */
+public class DatabaseBulkhead implements MeterBinder {
+    
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long timeoutMillis;
+    private final LongAdder rejected = new LongAdder();
+    private volatile Timer waitTimer;
+    
+    public DatabaseBulkhead(int maxConcurrent, long timeoutMillis) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutMillis = timeoutMillis;
+    }
+    
+    void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException(
+                    "No database permit within " + timeoutMillis + " ms (" + maxConcurrent + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database permit", e);
+        } finally {
+            Timer timer = waitTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+    
+    void release() {
+        permits.release();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.bulkhead.available", permits, Semaphore::availablePermits)
+            .description("Database permits not currently held")
+            .register(registry);
+        Gauge.builder("db.bulkhead.waiting", permits, Semaphore::getQueueLength)
+            .description("Threads queued for a database permit")
+            .register(registry);
+        FunctionCounter.builder("db.bulkhead.rejected", rejected, LongAdder::sum)
+            .description("Connection requests that timed out waiting for a permit")
+            .register(registry);
+        waitTimer = Timer.builder("db.bulkhead.wait")
+            .description("Time spent waiting for a database permit")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
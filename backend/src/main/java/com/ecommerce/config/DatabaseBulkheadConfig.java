@@ -0,0 +1,39 @@
+package com.ecommerce.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import javax.sql.DataSource;
+
+/**
+ * Wraps the pooled DataSource in a {@link BulkheadDataSource} when db.bulkhead.enabled is set,
+ * which the virtual-thread profile does.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.bulkhead.enabled", havingValue = "true")
+public class DatabaseBulkheadConfig {
+    
+    @Bean
+    public DatabaseBulkhead databaseBulkhead(
+        @Value("${db.bulkhead.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+        @Value("${db.bulkhead.timeout-ms:5000}") long timeoutMillis
+    ) {
+        return new DatabaseBulkhead(maxConcurrent, timeoutMillis);
+    }
+    
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<DatabaseBulkhead> bulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource((DataSource) bean, bulkhead.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
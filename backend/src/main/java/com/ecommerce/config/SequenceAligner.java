@@ -0,0 +1,48 @@
+package com.ecommerce.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Orders, order items and products moved from IDENTITY to pooled sequence ids so their inserts
+ * can be batched. On MySQL the sequences are emulated with tables; this pushes them past any ids
+ * already issued by AUTO_INCREMENT before the first block is handed out. Runs once the schema
+ * exists and before the web server accepts requests.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class SequenceAligner {
+    
+    private static final String[][] SEQUENCES = {
+        {"order_seq", "orders", "50"},
+        {"order_item_seq", "order_items", "100"},
+        {"product_seq", "products", "50"}
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @PostConstruct
+    public void align() {
+        for (String[] sequence : SEQUENCES) {
+            try {
+                int updated = jdbcTemplate.update(
+                    "UPDATE " + sequence[0] + " SET next_val = "
+                        + "(SELECT COALESCE(MAX(id), 0) + " + sequence[2] + " + 1 FROM " + sequence[1] + ") "
+                        + "WHERE next_val <= (SELECT COALESCE(MAX(id), 0) FROM " + sequence[1] + ")"
+                );
+                if (updated > 0) {
+                    log.info("Advanced {} past existing ids in {}", sequence[0], sequence[1]);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Could not align {} with {}: {}", sequence[0], sequence[1], e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.cache.CatalogCache;
+import com.ecommerce.cache.CatalogResponseCache;
+import com.ecommerce.cart.CartConsistencyChecker;
+import com.ecommerce.dto.CartConsistencyReport;
+import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductImportReport;
+import com.ecommerce.importer.ImportFormat;
+import com.ecommerce.importer.ProductImportService;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.TokenRevocationList;
+import com.ecommerce.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+    
+    private final CatalogCache catalogCache;
+    private final CatalogResponseCache responseCache;
+    private final CartConsistencyChecker cartConsistencyChecker;
+    private final ProductImportService productImportService;
+    private final ProductService productService;
+    private final UserRepository userRepository;
+    private final TokenRevocationList tokenRevocationList;
+    
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = catalogCache.stats();
+        stats.put("responses", responseCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+    
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        catalogCache.invalidateAll();
+        responseCache.invalidateAll();
+        return ResponseEntity.ok().build();
+    }
+    
+    @PostMapping("/carts/verify")
+    public ResponseEntity<CartConsistencyReport> verifyCarts(@RequestParam(defaultValue = "false") boolean repair) {
+        return ResponseEntity.ok(cartConsistencyChecker.check(repair));
+    }
+    
+    @GetMapping("/products")
+    public ResponseEntity<Page<ProductDTO>> getProducts(
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(productService.getAdminProducts(page, size));
+    }
+    
+    /**
+     * Imports the request body (CSV with a header row, or NDJSON) without buffering it. A failed
+     * import reports its job id; send the same feed again with resumeJob to continue after the
+     * last committed batch.
+     */
+    @PostMapping("/products/import")
+    public ResponseEntity<ProductImportReport> importProducts(
+        HttpServletRequest request,
+        @RequestParam(required = false) String format,
+        @RequestParam(required = false) String resumeJob,
+        @RequestParam(required = false) String source
+    ) throws IOException {
+        ImportFormat importFormat = ImportFormat.resolve(format, request.getContentType());
+        ProductImportReport report = productImportService.importProducts(
+            request.getInputStream(), importFormat, source, resumeJob);
+        return "FAILED".equals(report.getStatus())
+            ? ResponseEntity.internalServerError().body(report)
+            : ResponseEntity.ok(report);
+    }
+    
+    /**
+     * Signs the user out everywhere: outstanding access tokens stop working and every refresh token is revoked.
+     */
+    @PostMapping("/users/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeUserTokens(@PathVariable Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new RuntimeException("User not found");
+        }
+        tokenRevocationList.revokeUser(id);
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,11 +1,14 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.model.User;
+import com.ecommerce.security.AuthenticatedUser;
 import com.ecommerce.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -25,6 +28,18 @@ public class AuthController {
         return ResponseEntity.ok(authService.login(request));
     }
     
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshRequest request,
+                                       @AuthenticationPrincipal AuthenticatedUser principal) {
+        authService.logout(request != null ? request.getRefreshToken() : null, principal);
+        return ResponseEntity.noContent().build();
+    }
+    
     @GetMapping("/me")
     public ResponseEntity<UserDTO> getCurrentUser(Authentication authentication) {
         User user = authService.getCurrentUser(authentication.getName());
@@ -2,10 +2,12 @@ package com.ecommerce.controller;
 
 import com.ecommerce.dto.CartItemDTO;
 import com.ecommerce.service.CartService;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 
@@ -22,7 +24,7 @@ public class CartController {
     }
     
     @GetMapping("/total")
-    public ResponseEntity<Map<String, Double>> getCartTotal(Authentication authentication) {
+    public ResponseEntity<Map<String, BigDecimal>> getCartTotal(Authentication authentication) {
         return ResponseEntity.ok(Map.of("total", cartService.getCartTotal(authentication.getName())));
     }
     
@@ -35,22 +37,23 @@ public class CartController {
     public ResponseEntity<CartItemDTO> addToCart(
         Authentication authentication,
         @RequestParam Long productId,
-        @RequestParam(defaultValue = "1") Integer quantity
+        @RequestParam(defaultValue = "1") @Min(1) Integer quantity
     ) {
         return ResponseEntity.ok(cartService.addToCart(authentication.getName(), productId, quantity));
     }
     
     @PutMapping("/{cartItemId}")
     public ResponseEntity<CartItemDTO> updateCartItem(
+        Authentication authentication,
         @PathVariable Long cartItemId,
-        @RequestParam Integer quantity
+        @RequestParam @Min(1) Integer quantity
     ) {
-        return ResponseEntity.ok(cartService.updateCartItem(cartItemId, quantity));
+        return ResponseEntity.ok(cartService.updateCartItem(authentication.getName(), cartItemId, quantity));
     }
     
     @DeleteMapping("/{cartItemId}")
-    public ResponseEntity<Void> removeFromCart(@PathVariable Long cartItemId) {
-        cartService.removeFromCart(cartItemId);
+    public ResponseEntity<Void> removeFromCart(Authentication authentication, @PathVariable Long cartItemId) {
+        cartService.removeFromCart(authentication.getName(), cartItemId);
         return ResponseEntity.ok().build();
     }
     
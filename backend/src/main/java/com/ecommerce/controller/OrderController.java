@@ -1,16 +1,23 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.dto.CheckoutRequest;
+import com.ecommerce.dto.CursorPage;
 import com.ecommerce.dto.OrderDTO;
 import com.ecommerce.model.Order;
+import com.ecommerce.service.OrderExportService;
 import com.ecommerce.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -20,12 +27,22 @@ import java.util.Map;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
     
     @GetMapping
     public ResponseEntity<List<OrderDTO>> getUserOrders(Authentication authentication) {
         return ResponseEntity.ok(orderService.getUserOrders(authentication.getName()));
     }
     
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<OrderDTO>> getUserOrderPage(
+        Authentication authentication,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(orderService.getUserOrderPage(authentication.getName(), cursor, size));
+    }
+    
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Page<OrderDTO>> getAllOrders(
@@ -35,6 +52,30 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders(page, size));
     }
     
+    @GetMapping("/all/scroll")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDTO>> scrollAllOrders(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "10") int size
+    ) {
+        return ResponseEntity.ok(orderService.scrollAllOrders(cursor, size));
+    }
+    
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+        @RequestParam(defaultValue = "ndjson") String format,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+        @RequestParam(required = false) Order.OrderStatus status
+    ) {
+        OrderExportService.Format exportFormat = OrderExportService.Format.parse(format);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders." + exportFormat.getExtension() + "\"")
+            .body(out -> orderExportService.export(from, to, status, exportFormat, out));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<OrderDTO> getOrderById(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.getOrderById(id));
@@ -1,7 +1,18 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.cache.CatalogResponseCache;
+import com.ecommerce.catalog.FacetFilter;
+import com.ecommerce.catalog.ProductFilter;
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.FacetedPageDTO;
+import com.ecommerce.dto.ProductBatchUpdateReport;
+import com.ecommerce.dto.ProductCardDTO;
 import com.ecommerce.dto.ProductDTO;
+import com.ecommerce.dto.ProductPatch;
 import com.ecommerce.dto.ProductRequest;
+import com.ecommerce.dto.SuggestionDTO;
+import com.ecommerce.search.ProductSuggester;
+import com.ecommerce.service.ProductBatchUpdateService;
 import com.ecommerce.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -9,6 +20,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -17,29 +30,75 @@ import java.util.List;
 public class ProductController {
     
     private final ProductService productService;
+    private final ProductSuggester productSuggester;
+    private final CatalogResponseCache responseCache;
+    private final ProductBatchUpdateService batchUpdateService;
     
     @GetMapping
-    public ResponseEntity<Page<ProductDTO>> getAllProducts(
+    public ResponseEntity<?> getAllProducts(
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "12") int size,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
+        @RequestParam(defaultValue = "desc") String sortDir,
+        ServletWebRequest request
+    ) {
+        String key = CatalogResponseCache.pageKey(null, page, size, sortBy, sortDir);
+        return responseCache.catalog(request, key, () -> productService.getAllProducts(page, size, sortBy, sortDir));
+    }
+    
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductCardDTO>> scrollProducts(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "12") int size
+    ) {
+        return ResponseEntity.ok(productService.scrollProducts(cursor, size));
+    }
+    
+    @GetMapping("/browse")
+    public ResponseEntity<FacetedPageDTO> browseProducts(
+        @RequestParam(required = false) String category,
+        @RequestParam(required = false) String brand,
+        @RequestParam(required = false) String price,
+        @RequestParam(defaultValue = "false") boolean inStock,
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "12") int size,
         @RequestParam(defaultValue = "createdAt") String sortBy,
         @RequestParam(defaultValue = "desc") String sortDir
     ) {
-        return ResponseEntity.ok(productService.getAllProducts(page, size, sortBy, sortDir));
+        FacetFilter filter = new FacetFilter(category, brand, price, inStock);
+        return ResponseEntity.ok(productService.browseProducts(filter, page, size, sortBy, sortDir));
+    }
+    
+    @GetMapping("/filter")
+    public ResponseEntity<Page<ProductCardDTO>> filterProducts(
+        @RequestParam(required = false) List<String> category,
+        @RequestParam(required = false) List<String> brand,
+        @RequestParam(required = false) BigDecimal minPrice,
+        @RequestParam(required = false) BigDecimal maxPrice,
+        @RequestParam(required = false) Double minRating,
+        @RequestParam(defaultValue = "false") boolean inStock,
+        @RequestParam(defaultValue = "false") boolean featured,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "12") int size,
+        @RequestParam(defaultValue = "createdAt") String sortBy,
+        @RequestParam(defaultValue = "desc") String sortDir
+    ) {
+        ProductFilter filter = new ProductFilter(category, brand, minPrice, maxPrice, minRating, inStock, featured);
+        return ResponseEntity.ok(productService.filterProducts(filter, page, size, sortBy, sortDir));
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDTO> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<?> getProductById(@PathVariable Long id, ServletWebRequest request) {
+        return responseCache.product(request, id, () -> productService.getProductById(id));
     }
     
     @GetMapping("/featured")
-    public ResponseEntity<List<ProductDTO>> getFeaturedProducts() {
-        return ResponseEntity.ok(productService.getFeaturedProducts());
+    public ResponseEntity<?> getFeaturedProducts(ServletWebRequest request) {
+        return responseCache.catalog(request, "featured", productService::getFeaturedProducts);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDTO>> searchProducts(
+    public ResponseEntity<Page<ProductCardDTO>> searchProducts(
         @RequestParam String q,
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "12") int size
@@ -47,18 +106,28 @@ public class ProductController {
         return ResponseEntity.ok(productService.searchProducts(q, page, size));
     }
     
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+        @RequestParam String prefix,
+        @RequestParam(defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(productSuggester.suggest(prefix, limit));
+    }
+    
     @GetMapping("/category/{category}")
-    public ResponseEntity<Page<ProductDTO>> getProductsByCategory(
+    public ResponseEntity<?> getProductsByCategory(
         @PathVariable String category,
         @RequestParam(defaultValue = "0") int page,
-        @RequestParam(defaultValue = "12") int size
+        @RequestParam(defaultValue = "12") int size,
+        ServletWebRequest request
     ) {
-        return ResponseEntity.ok(productService.getProductsByCategory(category, page, size));
+        String key = CatalogResponseCache.pageKey(category, page, size, "createdAt", "desc");
+        return responseCache.catalog(request, key, () -> productService.getProductsByCategory(category, page, size));
     }
     
     @GetMapping("/categories")
-    public ResponseEntity<List<String>> getAllCategories() {
-        return ResponseEntity.ok(productService.getAllCategories());
+    public ResponseEntity<?> getAllCategories(ServletWebRequest request) {
+        return responseCache.catalog(request, "categories", productService::getAllCategories);
     }
     
     @PostMapping
@@ -73,6 +142,15 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProduct(id, request));
     }
     
+    /**
+     * Partial price, stock and featured-flag updates for many products at once, applied in chunks.
+     */
+    @PatchMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductBatchUpdateReport> patchProducts(@RequestBody List<ProductPatch> patches) {
+        return ResponseEntity.ok(batchUpdateService.patchProducts(patches));
+    }
+    
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
@@ -0,0 +1,97 @@
+package com.ecommerce.datagen;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Word lists and category shapes for generated products. Category sizes follow the weights, and
+ * within a category brands are Zipf-distributed, so a few brands carry most of the assortment.
+ */
+public final class CatalogVocabulary {
+    
+    public static final String[] CATEGORIES = {
+        "Electronics", "Clothing", "Home & Kitchen", "Sportswear", "Accessories", "Books",
+        "Beauty", "Toys", "Garden", "Automotive", "Grocery", "Office"
+    };
+    
+    // Share of the catalog per category, in CATEGORIES order
+    static final double[] CATEGORY_WEIGHTS = {
+        0.18, 0.16, 0.13, 0.09, 0.09, 0.08, 0.07, 0.06, 0.05, 0.04, 0.03, 0.02
+    };
+    
+    // Median list price per category, in CATEGORIES order
+    static final double[] MEDIAN_PRICES = {
+        149, 39, 59, 49, 29, 18, 24, 27, 35, 45, 9, 15
+    };
+    
+    public static final String[] BRANDS = {
+        "Acme", "Northwind", "Contoso", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Wonka", "Tyrell",
+        "Cyberdyne", "Soylent", "Hooli", "Vandelay", "Oscorp", "Aperture", "Gringotts", "Monarch", "Pied Piper",
+        "Dunder", "Sterling", "Prestige", "Massive", "Bluth", "Duff", "Krusty", "Nakatomi", "Virtucon",
+        "Wernham", "Zorg", "Altman", "Blackwood", "Corbin", "Delacroix", "Everly", "Fairfax", "Galloway",
+        "Hartwell", "Ingram", "Jarvis"
+    };
+    
+    public static final String[] ADJECTIVES = {
+        "Classic", "Premium", "Ultra", "Compact", "Wireless", "Organic", "Smart", "Vintage", "Portable",
+        "Pro", "Lightweight", "Deluxe", "Eco", "Rugged", "Slim", "Essential", "Heavy-Duty", "Modern"
+    };
+    
+    // Noun i belongs to category i % CATEGORIES.length
+    public static final String[] NOUNS = {
+        "Headphones", "Jacket", "Blender", "Sneakers", "Backpack", "Novel", "Serum", "Puzzle", "Planter",
+        "Dash Cam", "Coffee", "Notebook", "Watch", "Hoodie", "Kettle", "Yoga Mat", "Wallet", "Cookbook",
+        "Shampoo", "Robot", "Hose", "Charger", "Tea", "Desk Lamp", "Speaker", "T-Shirt", "Pan", "Shorts",
+        "Sunglasses", "Atlas"
+    };
+    
+    static final String[] FIRST_NAMES = {
+        "Ava", "Liam", "Noah", "Emma", "Mia", "Lucas", "Zoe", "Ethan", "Aria", "Mateo", "Isla", "Leo",
+        "Nora", "Kai", "Maya", "Omar", "Priya", "Chen", "Sofia", "Yuki"
+    };
+    
+    static final String[] LAST_NAMES = {
+        "Smith", "Garcia", "Chen", "Patel", "Kim", "Nguyen", "Muller", "Rossi", "Silva", "Khan", "Brown",
+        "Lopez", "Cohen", "Okafor", "Novak", "Sato"
+    };
+    
+    // City, state and zip prefix
+    static final String[][] CITIES = {
+        {"New York", "NY", "100"}, {"Los Angeles", "CA", "900"}, {"Chicago", "IL", "606"},
+        {"Houston", "TX", "770"}, {"Phoenix", "AZ", "850"}, {"Philadelphia", "PA", "191"},
+        {"Seattle", "WA", "981"}, {"Denver", "CO", "802"}, {"Boston", "MA", "021"}, {"Atlanta", "GA", "303"},
+        {"Miami", "FL", "331"}, {"Portland", "OR", "972"}
+    };
+    
+    private CatalogVocabulary() {
+    }
+    
+    /**
+     * A search query a shopper might type: a noun, a brand, or an adjective and a noun.
+     */
+    public static String searchTerm(RandomGenerator random) {
+        double roll = random.nextDouble();
+        if (roll < 0.5) {
+            return NOUNS[random.nextInt(NOUNS.length)];
+        }
+        if (roll < 0.8) {
+            return BRANDS[random.nextInt(BRANDS.length)];
+        }
+        return ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)];
+    }
+    
+    static String noun(int category, RandomGenerator random) {
+        int choices = (NOUNS.length - category + CATEGORIES.length - 1) / CATEGORIES.length;
+        return NOUNS[category + CATEGORIES.length * random.nextInt(choices)];
+    }
+    
+    static int category(RandomGenerator random) {
+        double roll = random.nextDouble();
+        for (int i = 0; i < CATEGORY_WEIGHTS.length - 1; i++) {
+            roll -= CATEGORY_WEIGHTS[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return CATEGORY_WEIGHTS.length - 1;
+    }
+}
@@ -0,0 +1,371 @@
+package com.ecommerce.datagen;
+
+import com.ecommerce.event.ProductsImportedEvent;
+import com.ecommerce.repository.SequenceBlockRepository;
+import com.ecommerce.repository.SyntheticDataRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+/**
+ * Fills the database with a large, skewed and reproducible dataset when the datagen profile is
+ * active: products whose sales follow a Zipf popularity curve, category sizes and brand shares
+ * taken from {@link CatalogVocabulary}, and users whose order counts follow a second Zipf curve,
+ * so a handful of accounts carry thousands of orders. Rows are written over JDBC in parallel
+ * batches. Each batch draws from its own random stream derived from the seed and the batch
+ * number, so the content does not depend on the thread count. The manifest it writes tells the
+ * load driver where the data is.
+ *
+ * <pre>
+ * java -jar target/ecommerce-backend-1.0.0.jar --spring.profiles.active=datagen --datagen.exit-when-done=true
+ * </pre>
+ *
+ * Run it against an otherwise idle database; generation is skipped when the first generated user
+ * already exists.
+ */
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+@Slf4j
+public class DataGenerator implements CommandLineRunner {
+    
+    private static final String EMAIL_PATTERN = "datagen-%d@example.com";
+    // Must match the allocationSize of the entities' sequence generators
+    private static final int PRODUCT_ALLOCATION_SIZE = 50;
+    private static final int ORDER_ALLOCATION_SIZE = 50;
+    private static final int ORDER_ITEM_ALLOCATION_SIZE = 100;
+    private static final int PRODUCT_STREAM = 1;
+    private static final int USER_STREAM = 2;
+    private static final int ORDER_STREAM = 3;
+    
+    private final SyntheticDataRepository repository;
+    private final SequenceBlockRepository sequenceBlocks;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApplicationContext context;
+    
+    @Value("${datagen.seed:42}")
+    private long seed;
+    
+    @Value("${datagen.products:1000000}")
+    private int productCount;
+    
+    @Value("${datagen.users:200000}")
+    private int userCount;
+    
+    @Value("${datagen.orders:10000000}")
+    private long orderCount;
+    
+    @Value("${datagen.history-days:730}")
+    private int historyDays;
+    
+    @Value("${datagen.popularity-exponent:1.0}")
+    private double popularityExponent;
+    
+    @Value("${datagen.activity-exponent:0.6}")
+    private double activityExponent;
+    
+    @Value("${datagen.batch-size:5000}")
+    private int batchSize;
+    
+    @Value("${datagen.threads:4}")
+    private int threads;
+    
+    @Value("${datagen.password:datagen123}")
+    private String password;
+    
+    @Value("${datagen.manifest:datagen-manifest.properties}")
+    private String manifestPath;
+    
+    @Value("${datagen.exit-when-done:false}")
+    private boolean exitWhenDone;
+    
+    @Override
+    public void run(String... args) throws Exception {
+        if (productCount < 1 || userCount < 1) {
+            throw new RuntimeException("datagen.products and datagen.users must be at least 1");
+        }
+        if (repository.userExists(String.format(EMAIL_PATTERN, 0))) {
+            log.info("Synthetic dataset already present, skipping generation");
+            exitIfRequested();
+            return;
+        }
+        
+        long start = System.currentTimeMillis();
+        long firstProductId = sequenceBlocks.reserve("product_seq", productCount, PRODUCT_ALLOCATION_SIZE);
+        long firstUserId = repository.maxUserId() + 1;
+        DatasetManifest manifest = new DatasetManifest(seed, firstProductId, productCount, firstUserId, userCount,
+            orderCount, EMAIL_PATTERN, password, popularityExponent, activityExponent);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime historyStart = now.minusDays(historyDays);
+        log.info("Generating {} products, {} users and {} orders (seed {}) on {} threads",
+            productCount, userCount, orderCount, seed, threads);
+        
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "datagen-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // Effective unit price in cents per product index, for pricing order lines
+            int[] prices = new int[productCount];
+            ZipfDistribution brands = new ZipfDistribution(CatalogVocabulary.BRANDS.length, 1.0);
+            inBatches(pool, "products", productCount, PRODUCT_STREAM, (random, from, to) ->
+                writeProducts(random, manifest, brands, prices, historyStart, from, to));
+            
+            String hash = passwordEncoder.encode(password);
+            inBatches(pool, "users", userCount, USER_STREAM, (random, from, to) ->
+                writeUsers(random, firstUserId, hash, historyStart, from, to));
+            
+            if (orderCount > 0) {
+                long firstOrderId = sequenceBlocks.reserve("order_seq", orderCount, ORDER_ALLOCATION_SIZE);
+                ZipfDistribution popularity = new ZipfDistribution(productCount, popularityExponent);
+                ZipfDistribution activity = new ZipfDistribution(userCount, activityExponent);
+                double secondsPerOrder = Duration.between(historyStart, now).getSeconds() / (double) orderCount;
+                inBatches(pool, "orders", orderCount, ORDER_STREAM, (random, from, to) ->
+                    writeOrders(random, manifest, popularity, activity, prices, firstOrderId, historyStart,
+                        secondsPerOrder, now, from, to));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        manifest.store(Paths.get(manifestPath));
+        log.info("Synthetic dataset generated in {} s, manifest written to {}",
+            (System.currentTimeMillis() - start) / 1000, Paths.get(manifestPath).toAbsolutePath());
+        exitIfRequested();
+        // Staying up to serve: reload the read models that may already hold the old catalog
+        eventPublisher.publishEvent(new ProductsImportedEvent(productCount));
+    }
+    
+    private void inBatches(ExecutorService pool, String what, long total, int stream, BatchWriter writer) {
+        long start = System.currentTimeMillis();
+        long batches = (total + batchSize - 1) / batchSize;
+        long reportEvery = Math.max(1, batches / 10);
+        AtomicLong finished = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long batch = 0; batch < batches; batch++) {
+            long from = batch * batchSize;
+            long to = Math.min(total, from + batchSize);
+            SplittableRandom random = new SplittableRandom(streamSeed(stream, batch));
+            futures.add(pool.submit(() -> {
+                writer.write(random, from, to);
+                long done = finished.incrementAndGet();
+                if (done % reportEvery == 0) {
+                    log.info("Generating {}: {}/{} batches", what, done, batches);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Generating " + what + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Generating " + what + " was interrupted", e);
+        }
+        log.info("Generated {} {} in {} ms", total, what, System.currentTimeMillis() - start);
+    }
+    
+    private void writeProducts(RandomGenerator random, DatasetManifest manifest, ZipfDistribution brands,
+                               int[] prices, LocalDateTime historyStart, long from, long to) {
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        long historySeconds = historyDays * 86400L;
+        for (long i = from; i < to; i++) {
+            long id = manifest.getFirstProductId() + i;
+            long rank = manifest.productRank(id);
+            int category = CatalogVocabulary.category(random);
+            // Each category has its own leading brands
+            String brand = CatalogVocabulary.BRANDS[
+                (int) ((brands.sample(random) - 1 + category * 7L) % CatalogVocabulary.BRANDS.length)];
+            String adjective = CatalogVocabulary.ADJECTIVES[random.nextInt(CatalogVocabulary.ADJECTIVES.length)];
+            String noun = CatalogVocabulary.noun(category, random);
+            String sku = String.format("DG-%08d", i);
+            
+            // Log-normal around the category median, ending in .99
+            double median = CatalogVocabulary.MEDIAN_PRICES[category];
+            long dollars = Math.round(median * Math.exp(0.6 * random.nextGaussian()));
+            BigDecimal price = BigDecimal.valueOf(Math.max(1, dollars) * 100 - 1, 2);
+            BigDecimal discount = random.nextDouble() < 0.2
+                ? price.multiply(BigDecimal.valueOf(60 + random.nextInt(31), 2)).setScale(2, RoundingMode.DOWN)
+                : null;
+            prices[(int) i] = (discount != null ? discount : price).movePointRight(2).intValueExact();
+            
+            int stock = random.nextDouble() < 0.08
+                ? 0
+                : (int) Math.min(5000, Math.round(Math.exp(3 + random.nextGaussian())));
+            double rating = Math.round(Math.max(1.0, Math.min(5.0, 3.9 + 0.6 * random.nextGaussian())) * 10) / 10.0;
+            int reviews = (int) (4000 * Math.pow(rank, -0.6) * random.nextDouble());
+            Timestamp createdAt = Timestamp.valueOf(historyStart.plusSeconds(random.nextLong(historySeconds + 1)));
+            
+            rows.add(new Object[] {
+                id, sku, brand + " " + adjective + " " + noun + " " + (100 + random.nextInt(900)),
+                adjective + " " + noun.toLowerCase() + " from " + brand + ".",
+                price, discount, stock, CatalogVocabulary.CATEGORIES[category],
+                "https://picsum.photos/seed/" + sku + "/500/500", brand, rating, reviews,
+                random.nextDouble() >= 0.02, rank <= 24, createdAt, createdAt
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> repository.insertProducts(rows));
+    }
+    
+    private void writeUsers(RandomGenerator random, long firstUserId, String passwordHash,
+                            LocalDateTime historyStart, long from, long to) {
+        List<Object[]> rows = new ArrayList<>((int) (to - from));
+        for (long i = from; i < to; i++) {
+            String[] city = city(i);
+            Timestamp createdAt = Timestamp.valueOf(historyStart.minusSeconds(random.nextLong(365L * 86400)));
+            rows.add(new Object[] {
+                firstUserId + i, String.format(EMAIL_PATTERN, i), passwordHash,
+                CatalogVocabulary.FIRST_NAMES[random.nextInt(CatalogVocabulary.FIRST_NAMES.length)],
+                CatalogVocabulary.LAST_NAMES[random.nextInt(CatalogVocabulary.LAST_NAMES.length)],
+                phone(i), street(i), city[0], city[1], zipCode(i), "USA", "USER", createdAt, createdAt
+            });
+        }
+        transactionTemplate.executeWithoutResult(status -> repository.insertUsers(rows));
+    }
+    
+    private void writeOrders(RandomGenerator random, DatasetManifest manifest, ZipfDistribution popularity,
+                             ZipfDistribution activity, int[] prices, long firstOrderId, LocalDateTime historyStart,
+                             double secondsPerOrder, LocalDateTime now, long from, long to) {
+        List<Object[]> orders = new ArrayList<>((int) (to - from));
+        List<Object[]> items = new ArrayList<>((int) (to - from) * 2);
+        for (long o = from; o < to; o++) {
+            long orderId = firstOrderId + o;
+            long userIndex = manifest.userIndex(activity.sample(random));
+            // Orders are spread evenly over the history, so ids and timestamps rise together
+            LocalDateTime createdAt = historyStart.plusSeconds((long) ((o + random.nextDouble()) * secondsPerOrder));
+            
+            long totalCents = 0;
+            int lines = lineCount(random);
+            for (int line = 0; line < lines; line++) {
+                long productId = manifest.productId(popularity.sample(random));
+                int quantity = quantity(random);
+                int cents = prices[(int) (productId - manifest.getFirstProductId())];
+                totalCents += (long) cents * quantity;
+                items.add(new Object[] {null, orderId, productId, quantity, BigDecimal.valueOf(cents, 2)});
+            }
+            
+            String[] city = city(userIndex);
+            Timestamp timestamp = Timestamp.valueOf(createdAt);
+            orders.add(new Object[] {
+                orderId, manifest.getFirstUserId() + userIndex, BigDecimal.valueOf(totalCents, 2),
+                status(random, Duration.between(createdAt, now).toDays()),
+                street(userIndex), city[0], city[1], zipCode(userIndex), "USA", phone(userIndex), timestamp, timestamp
+            });
+        }
+        
+        // Item ids are taken outside the write transaction so the sequence row is not held during the insert
+        long firstItemId = sequenceBlocks.reserve("order_item_seq", items.size(), ORDER_ITEM_ALLOCATION_SIZE);
+        for (int i = 0; i < items.size(); i++) {
+            items.get(i)[0] = firstItemId + i;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            repository.insertOrders(orders);
+            repository.insertOrderItems(items);
+        });
+    }
+    
+    // 1 to 5 lines, most orders small
+    private static int lineCount(RandomGenerator random) {
+        double roll = random.nextDouble();
+        if (roll < 0.45) {
+            return 1;
+        }
+        if (roll < 0.70) {
+            return 2;
+        }
+        if (roll < 0.85) {
+            return 3;
+        }
+        return roll < 0.95 ? 4 : 5;
+    }
+    
+    private static int quantity(RandomGenerator random) {
+        double roll = random.nextDouble();
+        if (roll < 0.80) {
+            return 1;
+        }
+        return roll < 0.95 ? 2 : 3;
+    }
+    
+    // Older orders have moved further through fulfilment; a few are cancelled
+    private static String status(RandomGenerator random, long ageDays) {
+        if (random.nextDouble() < 0.03) {
+            return "CANCELLED";
+        }
+        if (ageDays > 14) {
+            return "DELIVERED";
+        }
+        if (ageDays > 5) {
+            return random.nextBoolean() ? "SHIPPED" : "DELIVERED";
+        }
+        if (ageDays > 1) {
+            return random.nextBoolean() ? "PROCESSING" : "SHIPPED";
+        }
+        return random.nextBoolean() ? "PENDING" : "PROCESSING";
+    }
+    
+    // Address fields are derived from the user index so orders can repeat them without a lookup
+    private static String[] city(long userIndex) {
+        return CatalogVocabulary.CITIES[(int) (userIndex % CatalogVocabulary.CITIES.length)];
+    }
+    
+    private static String street(long userIndex) {
+        return (1 + userIndex * 7919 % 9999) + " Market Street";
+    }
+    
+    private static String zipCode(long userIndex) {
+        return city(userIndex)[2] + String.format("%02d", userIndex % 100);
+    }
+    
+    private static String phone(long userIndex) {
+        return String.format("555-%04d", userIndex % 10000);
+    }
+    
+    private long streamSeed(int stream, long batch) {
+        long z = seed + stream * 0x9E3779B97F4A7C15L + batch * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private void exitIfRequested() {
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+    
+    private interface BatchWriter {
+        void write(RandomGenerator random, long from, long to);
+    }
+}
@@ -0,0 +1,146 @@
+package com.ecommerce.datagen;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * What the generator wrote and how to address it: id ranges, the user login pattern and the
+ * popularity mapping. Rank 1 is the hottest product or the most active user; ranks are scattered
+ * over the id range by a fixed permutation so hot rows are not clustered at the start of the
+ * table. The load driver reads this file to aim its traffic at the same hot set.
+ */
+@Getter
+public final class DatasetManifest {
+    
+    private final long seed;
+    private final long firstProductId;
+    private final long productCount;
+    private final long firstUserId;
+    private final long userCount;
+    private final long orderCount;
+    private final String userEmailPattern;
+    private final String userPassword;
+    private final double popularityExponent;
+    private final double activityExponent;
+    @Getter(AccessLevel.NONE)
+    private final long productStep;
+    @Getter(AccessLevel.NONE)
+    private final long productStepInverse;
+    @Getter(AccessLevel.NONE)
+    private final long userStep;
+    
+    public DatasetManifest(long seed, long firstProductId, long productCount, long firstUserId, long userCount,
+                           long orderCount, String userEmailPattern, String userPassword,
+                           double popularityExponent, double activityExponent) {
+        this.seed = seed;
+        this.firstProductId = firstProductId;
+        this.productCount = productCount;
+        this.firstUserId = firstUserId;
+        this.userCount = userCount;
+        this.orderCount = orderCount;
+        this.userEmailPattern = userEmailPattern;
+        this.userPassword = userPassword;
+        this.popularityExponent = popularityExponent;
+        this.activityExponent = activityExponent;
+        this.productStep = coprimeStep(productCount);
+        this.productStepInverse = BigInteger.valueOf(productStep)
+            .modInverse(BigInteger.valueOf(productCount))
+            .longValue();
+        this.userStep = coprimeStep(userCount);
+    }
+    
+    /**
+     * Id of the product with the given popularity rank (1-based).
+     */
+    public long productId(long rank) {
+        return firstProductId + scatter(rank - 1, productCount, productStep);
+    }
+    
+    /**
+     * Popularity rank (1-based) of a generated product id; the inverse of {@link #productId(long)}.
+     */
+    public long productRank(long productId) {
+        return scatter(productId - firstProductId, productCount, productStepInverse) + 1;
+    }
+    
+    /**
+     * Index (0-based, used in the email) of the user with the given activity rank (1-based).
+     */
+    public long userIndex(long rank) {
+        return scatter(rank - 1, userCount, userStep);
+    }
+    
+    public String userEmail(long index) {
+        return String.format(userEmailPattern, index);
+    }
+    
+    public void store(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("seed", Long.toString(seed));
+        properties.setProperty("products.first-id", Long.toString(firstProductId));
+        properties.setProperty("products.count", Long.toString(productCount));
+        properties.setProperty("users.first-id", Long.toString(firstUserId));
+        properties.setProperty("users.count", Long.toString(userCount));
+        properties.setProperty("orders.count", Long.toString(orderCount));
+        properties.setProperty("users.email-pattern", userEmailPattern);
+        properties.setProperty("users.password", userPassword);
+        properties.setProperty("popularity-exponent", Double.toString(popularityExponent));
+        properties.setProperty("activity-exponent", Double.toString(activityExponent));
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            properties.store(writer, "synthetic dataset");
+        }
+    }
+    
+    public static DatasetManifest load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return new DatasetManifest(
+            Long.parseLong(properties.getProperty("seed")),
+            Long.parseLong(properties.getProperty("products.first-id")),
+            Long.parseLong(properties.getProperty("products.count")),
+            Long.parseLong(properties.getProperty("users.first-id")),
+            Long.parseLong(properties.getProperty("users.count")),
+            Long.parseLong(properties.getProperty("orders.count")),
+            properties.getProperty("users.email-pattern"),
+            properties.getProperty("users.password"),
+            Double.parseDouble(properties.getProperty("popularity-exponent")),
+            Double.parseDouble(properties.getProperty("activity-exponent")));
+    }
+    
+    // i -> i * step mod n is a permutation of [0, n) when step and n are coprime; step < n, so no overflow
+    // below three billion rows.
+    private static long scatter(long i, long n, long step) {
+        return i * step % n;
+    }
+    
+    // Near n / golden ratio, so consecutive ranks land far apart.
+    private static long coprimeStep(long n) {
+        long step = Math.max(1, (long) (n * 0.6180339887498949));
+        while (gcd(step, n) != 1) {
+            step++;
+        }
+        return step;
+    }
+    
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -12,4 +12,7 @@ public class AuthResponse {
     private String lastName;
     private String role;
     private Long userId;
+    private String refreshToken;
+    // Access token lifetime in seconds
+    private Long expiresIn;
 }
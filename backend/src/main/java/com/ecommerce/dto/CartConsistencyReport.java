@@ -0,0 +1,23 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CartConsistencyReport {
+    private int cartsChecked;
+    private int linesChecked;
+    private boolean repaired;
+    private List<Mismatch> mismatches = new ArrayList<>();
+    
+    @Data
+    @AllArgsConstructor
+    public static class Mismatch {
+        private String email;
+        private BigDecimal cachedTotal;
+        private BigDecimal expectedTotal;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.dto;
 
 import lombok.Data;
+import java.math.BigDecimal;
 
 @Data
 public class CartItemDTO {
@@ -8,8 +9,8 @@ public class CartItemDTO {
     private Long productId;
     private String productName;
     private String productImage;
-    private Double price;
-    private Double discountPrice;
+    private BigDecimal price;
+    private BigDecimal discountPrice;
     private Integer quantity;
-    private Double total;
+    private BigDecimal total;
 }
@@ -0,0 +1,16 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class FacetedPageDTO {
+    private List<ProductCardDTO> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductBatchUpdateReport {
+    private int requested;
+    private int updated;
+    private List<Rejected> rejected = new ArrayList<>();
+    private List<ChunkResult> chunks = new ArrayList<>();
+    private long elapsedMs;
+    
+    @Data
+    public static class ChunkResult {
+        private int chunk;
+        private long firstId;
+        private long lastId;
+        private int size;
+        private int updated;
+        private List<Long> notFound = new ArrayList<>();
+        // Existing products left unchanged because the discount would not stay below the price
+        private List<Long> conflicts = new ArrayList<>();
+        private long elapsedMs;
+        // Set when the chunk rolled back; none of its rows were changed
+        private String error;
+    }
+    
+    @Data
+    @AllArgsConstructor
+    public static class Rejected {
+        private Long id;
+        private String message;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * What a listing card shows: ProductDTO without the description and admin flags. Stock is only
+ * in or out, so routine stock movement does not change cached listing bodies; the detail view
+ * carries the exact quantity.
+ */
+@Data
+public class ProductCardDTO {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private BigDecimal discountPrice;
+    private String imageUrl;
+    private String category;
+    private String brand;
+    private Double rating;
+    private Integer reviewCount;
+    private Boolean inStock;
+    private Boolean isFeatured;
+}
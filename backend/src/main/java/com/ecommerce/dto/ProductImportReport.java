@@ -0,0 +1,31 @@
+package com.ecommerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportReport {
+    private String jobId;
+    private String status;
+    // Records stored or rejected so far, across every run of the job; a resume continues after it
+    private long checkpoint;
+    private long inserted;
+    private long updated;
+    private long failed;
+    // Records before the checkpoint that this run skipped
+    private long skipped;
+    private long elapsedMs;
+    private String error;
+    private List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private long record;
+        private String sku;
+        private String message;
+    }
+}
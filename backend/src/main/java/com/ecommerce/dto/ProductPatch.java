@@ -0,0 +1,15 @@
+package com.ecommerce.dto;
+
+import lombok.Data;
+
+/**
+ * Partial update of one product for the batch endpoint; null fields are left unchanged.
+ */
+@Data
+public class ProductPatch {
+    private Long id;
+    private Double price;
+    private Double discountPrice;
+    private Integer stockQuantity;
+    private Boolean isFeatured;
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Map;
+
+/**
+ * Published when an order is placed from a user's cart; the rows it ordered are already deleted in
+ * the same transaction, so those lines must leave the in-memory copy once it commits.
+ */
+@Getter
+@AllArgsConstructor
+public class CartCheckedOutEvent {
+    private final String email;
+    // Quantity ordered per cart line id, as checkout read them
+    private final Map<Long, Integer> orderedLines;
+}
@@ -0,0 +1,16 @@
+package com.ecommerce.event;
+
+import com.ecommerce.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final List<Product> products;
+    
+    public static ProductChangedEvent of(Product product) {
+        return new ProductChangedEvent(List.of(product));
+    }
+}
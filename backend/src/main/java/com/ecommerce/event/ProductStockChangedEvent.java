@@ -0,0 +1,20 @@
+package com.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+/**
+ * Published when only stock levels moved (reservations, checkout), so listeners that index
+ * descriptive fields can ignore it. Carries ids only: stock updates are set-based and the
+ * entities in hand may be stale or uninitialized proxies.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductStockChangedEvent {
+    private final List<Long> productIds;
+    
+    public static ProductStockChangedEvent of(Long productId) {
+        return new ProductStockChangedEvent(List.of(productId));
+    }
+}
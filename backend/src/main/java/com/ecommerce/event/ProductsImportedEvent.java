@@ -0,0 +1,14 @@
+package com.ecommerce.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published once after a bulk import has written products, so read models reload in one pass
+ * instead of applying a ProductChangedEvent per row.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductsImportedEvent {
+    private final long productCount;
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RFC 4180 CSV with a header row: comma separated, fields optionally double-quoted, "" for a
+ * quote inside a quoted field, and line breaks allowed inside quotes. Blank lines are skipped.
+ */
+class CsvRecordReader implements ProductRecordReader {
+    
+    private final BufferedReader reader;
+    private final List<String> header;
+    private long number;
+    
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+        try {
+            List<String> names = readRow();
+            if (names == null) {
+                throw new RuntimeException("CSV import is empty");
+            }
+            if (!names.isEmpty() && names.get(0).startsWith("\uFEFF")) {
+                names.set(0, names.get(0).substring(1));
+            }
+            this.header = new ArrayList<>(names.size());
+            for (String name : names) {
+                header.add(ProductImportRecord.normalize(name));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read CSV header", e);
+        }
+    }
+    
+    @Override
+    public ProductImportRecord next() throws IOException {
+        List<String> values;
+        do {
+            values = readRow();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+        
+        number++;
+        if (values.size() != header.size()) {
+            return new ProductImportRecord(number, null,
+                "Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i).trim();
+            fields.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        return new ProductImportRecord(number, fields, null);
+    }
+    
+    // One logical row, which may span several physical lines inside quotes; null at end of input
+    private List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field after record " + number);
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int following = reader.read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        values.add(field.toString());
+        return values;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
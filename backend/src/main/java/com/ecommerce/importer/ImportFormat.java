@@ -0,0 +1,28 @@
+package com.ecommerce.importer;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    CSV, NDJSON;
+    
+    /**
+     * The explicit format if given, else guessed from a content type or file name.
+     */
+    public static ImportFormat resolve(String format, String hint) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported import format: " + format);
+            }
+        }
+        String lower = hint != null ? hint.toLowerCase(Locale.ROOT) : "";
+        if (lower.contains("csv")) {
+            return CSV;
+        }
+        if (lower.contains("json")) {
+            return NDJSON;
+        }
+        throw new RuntimeException("Cannot tell the import format, pass format=csv or format=ndjson");
+    }
+}
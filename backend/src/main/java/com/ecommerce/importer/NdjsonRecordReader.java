@@ -0,0 +1,64 @@
+package com.ecommerce.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * One JSON object per line. A malformed line becomes a failed record instead of ending the import.
+ */
+class NdjsonRecordReader implements ProductRecordReader {
+    
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+    private long number;
+    
+    NdjsonRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+    
+    @Override
+    public ProductImportRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+        
+        number++;
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            return new ProductImportRecord(number, null, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return new ProductImportRecord(number, null, "Expected a JSON object");
+        }
+        Map<String, String> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> entries = node.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            JsonNode value = entry.getValue();
+            if (value.isContainerNode()) {
+                return new ProductImportRecord(number, null, "Field " + entry.getKey() + " must be a single value");
+            }
+            String text = value.isNull() ? null : value.asText().trim();
+            fields.put(ProductImportRecord.normalize(entry.getKey()), text == null || text.isEmpty() ? null : text);
+        }
+        return new ProductImportRecord(number, fields, null);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
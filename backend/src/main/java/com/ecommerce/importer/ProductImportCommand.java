@@ -0,0 +1,59 @@
+package com.ecommerce.importer;
+
+import com.ecommerce.dto.ProductImportReport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs one import from a file and exits, for feeds too large to send through the admin endpoint:
+ * {@code java -jar ecommerce-backend.jar --import.file=feed.csv --server.port=0}, optionally with
+ * {@code --import.format=ndjson} and {@code --import.resume=<job id>}.
+ */
+@Component
+@ConditionalOnProperty(name = "import.file")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportCommand implements CommandLineRunner {
+    
+    private final ProductImportService productImportService;
+    private final ApplicationContext context;
+    
+    @Value("${import.file}")
+    private String file;
+    
+    @Value("${import.format:}")
+    private String format;
+    
+    @Value("${import.resume:}")
+    private String resumeJobId;
+    
+    @Override
+    public void run(String... args) throws Exception {
+        Path path = Paths.get(file);
+        ImportFormat importFormat = ImportFormat.resolve(format, path.getFileName().toString());
+        ProductImportReport report;
+        try (InputStream in = Files.newInputStream(path)) {
+            report = productImportService.importProducts(in, importFormat, path.toAbsolutePath().toString(),
+                resumeJobId);
+        }
+        for (ProductImportReport.RowError error : report.getErrors()) {
+            log.warn("Record {} ({}): {}", error.getRecord(), error.getSku(), error.getMessage());
+        }
+        if ("FAILED".equals(report.getStatus())) {
+            log.error("Import failed at record {}: {}. Resume with --import.resume={}",
+                report.getCheckpoint(), report.getError(), report.getJobId());
+        }
+        int status = "FAILED".equals(report.getStatus()) ? 1 : 0;
+        System.exit(SpringApplication.exit(context, () -> status));
+    }
+}
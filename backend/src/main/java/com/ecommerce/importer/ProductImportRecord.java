@@ -0,0 +1,31 @@
+package com.ecommerce.importer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Map;
+
+/**
+ * One input record: its 1-based position in the feed and its fields keyed by normalized name,
+ * or the reason it could not be parsed.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductImportRecord {
+    private final long number;
+    private final Map<String, String> fields;
+    private final String parseError;
+    
+    /**
+     * Lower case without separators, so "discount_price", "discountPrice" and "Discount Price" match.
+     */
+    static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+}
@@ -0,0 +1,235 @@
+package com.ecommerce.importer;
+
+import com.ecommerce.dto.ProductImportReport;
+import com.ecommerce.event.ProductsImportedEvent;
+import com.ecommerce.importer.ProductImportValidator.ValidatedRecord;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductImportJob;
+import com.ecommerce.repository.ProductImportJobRepository;
+import com.ecommerce.repository.ProductImportRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a CSV or NDJSON feed into the products table, keyed by SKU. Records are read one at a
+ * time and handled in batches: each batch is validated in parallel, new SKUs get ids from a block
+ * reserved on the product sequence, and the batch is written as one JDBC upsert in the same
+ * transaction that moves the job's checkpoint. A failed or interrupted import is resumed by
+ * sending the same feed again with the job id; records up to the checkpoint are skipped. Read
+ * models are refreshed once, after the last batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportService {
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final ProductImportRepository productImportRepository;
+    private final ProductImportJobRepository jobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+    
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+    
+    @Value("${import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+    
+    public ProductImportReport importProducts(InputStream in, ImportFormat format, String source, String resumeJobId) {
+        ProductImportJob job = resumeJobId != null && !resumeJobId.isBlank()
+            ? resume(resumeJobId, format)
+            : jobRepository.save(newJob(source, format));
+        String jobId = job.getId();
+        if (!running.add(jobId)) {
+            throw new RuntimeException("Import job " + jobId + " is already running");
+        }
+        
+        long start = System.currentTimeMillis();
+        ProductImportReport report = new ProductImportReport();
+        Progress progress = new Progress(job.getRecordsCommitted());
+        ProductImportJob.Status status = ProductImportJob.Status.COMPLETED;
+        String error = null;
+        log.info("Product import {} started from {} ({}), checkpoint {}", jobId, source, format, progress.checkpoint);
+        try (ProductRecordReader reader = ProductRecordReader.open(format, in, objectMapper)) {
+            List<ProductImportRecord> batch = new ArrayList<>(batchSize);
+            ProductImportRecord record;
+            while ((record = reader.next()) != null) {
+                if (record.getNumber() <= progress.checkpoint) {
+                    report.setSkipped(report.getSkipped() + 1);
+                    continue;
+                }
+                batch.add(record);
+                if (batch.size() == batchSize) {
+                    writeBatch(jobId, batch, progress, report);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(jobId, batch, progress, report);
+            }
+        } catch (IOException | RuntimeException e) {
+            status = ProductImportJob.Status.FAILED;
+            error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            log.warn("Product import {} failed after record {}: {}", jobId, progress.checkpoint, error);
+        } finally {
+            try {
+                jobRepository.updateStatus(jobId, status, error, LocalDateTime.now());
+            } finally {
+                running.remove(jobId);
+                if (progress.written > 0) {
+                    eventPublisher.publishEvent(new ProductsImportedEvent(progress.written));
+                }
+            }
+        }
+        
+        ProductImportJob finished = jobRepository.findById(jobId).orElse(job);
+        report.setJobId(jobId);
+        report.setStatus(finished.getStatus().name());
+        report.setCheckpoint(finished.getRecordsCommitted());
+        report.setInserted(finished.getInserted());
+        report.setUpdated(finished.getUpdated());
+        report.setFailed(finished.getFailed());
+        report.setError(error);
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("Product import {} {}: {} inserted, {} updated, {} failed in {} ms", jobId, report.getStatus(),
+            report.getInserted(), report.getUpdated(), report.getFailed(), report.getElapsedMs());
+        return report;
+    }
+    
+    private void writeBatch(String jobId, List<ProductImportRecord> batch, Progress progress,
+                            ProductImportReport report) {
+        List<ValidatedRecord> validated = batch.parallelStream()
+            .map(ProductImportValidator::validate)
+            .collect(Collectors.toList());
+        
+        List<Product> products = new ArrayList<>(validated.size());
+        long failed = 0;
+        for (ValidatedRecord record : validated) {
+            if (record.error() != null) {
+                failed++;
+                addError(report, record);
+            } else {
+                products.add(record.product());
+            }
+        }
+        
+        Map<String, Long> ids = productImportRepository.findIdsBySku(
+            products.stream().map(Product::getSku).collect(Collectors.toSet()));
+        List<Product> fresh = new ArrayList<>();
+        long updated = 0;
+        Map<String, Product> firstOfSku = new HashMap<>();
+        for (Product product : products) {
+            Long id = ids.get(product.getSku());
+            Product earlier = firstOfSku.putIfAbsent(product.getSku(), product);
+            if (id != null) {
+                product.setId(id);
+                updated++;
+            } else if (earlier != null) {
+                // Repeated SKU within the batch: the later record updates the row the earlier one inserts
+                product.setId(null);
+                updated++;
+            } else {
+                fresh.add(product);
+            }
+        }
+        if (!fresh.isEmpty()) {
+            // Reserved in its own short transaction, so the sequence row is not locked for the whole write
+            long nextId = productImportRepository.reserveIds(fresh.size());
+            for (Product product : fresh) {
+                product.setId(nextId++);
+                if (product.getIsActive() == null) {
+                    product.setIsActive(true);
+                }
+                if (product.getIsFeatured() == null) {
+                    product.setIsFeatured(false);
+                }
+                if (product.getStockQuantity() == null) {
+                    product.setStockQuantity(0);
+                }
+            }
+        }
+        for (Product product : products) {
+            if (product.getId() == null) {
+                product.setId(firstOfSku.get(product.getSku()).getId());
+            }
+        }
+        
+        long checkpoint = batch.get(batch.size() - 1).getNumber();
+        long inserted = fresh.size();
+        long rejected = failed;
+        long rowsUpdated = updated;
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!products.isEmpty()) {
+                productImportRepository.upsert(products, now);
+            }
+            jobRepository.advance(jobId, checkpoint, inserted, rowsUpdated, rejected, now);
+        });
+        progress.checkpoint = checkpoint;
+        progress.written += products.size();
+        if (++progress.batches % 50 == 0) {
+            log.info("Product import {} at record {}", jobId, checkpoint);
+        }
+    }
+    
+    private ProductImportJob resume(String jobId, ImportFormat format) {
+        ProductImportJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Import job not found: " + jobId));
+        if (job.getStatus() == ProductImportJob.Status.COMPLETED) {
+            throw new RuntimeException("Import job " + jobId + " has already completed");
+        }
+        if (!job.getFormat().equals(format.name())) {
+            throw new RuntimeException("Import job " + jobId + " was started as " + job.getFormat());
+        }
+        return job;
+    }
+    
+    private static ProductImportJob newJob(String source, ImportFormat format) {
+        ProductImportJob job = new ProductImportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setSource(source != null && !source.isBlank() ? truncate(source) : "upload");
+        job.setFormat(format.name());
+        return job;
+    }
+    
+    private void addError(ProductImportReport report, ValidatedRecord record) {
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ProductImportReport.RowError(record.number(), record.sku(), record.error()));
+        } else {
+            report.setErrorsTruncated(true);
+        }
+    }
+    
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+    
+    private static final class Progress {
+        private long checkpoint;
+        private long written;
+        private int batches;
+        
+        private Progress(long checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+    }
+}
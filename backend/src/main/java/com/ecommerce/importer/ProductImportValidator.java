@@ -0,0 +1,161 @@
+package com.ecommerce.importer;
+
+import com.ecommerce.model.Product;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns a parsed record into an unsaved Product, or lists everything wrong with it. Stateless,
+ * so records of a batch are validated in parallel.
+ */
+final class ProductImportValidator {
+    
+    private ProductImportValidator() {
+    }
+    
+    static ValidatedRecord validate(ProductImportRecord record) {
+        if (record.getParseError() != null) {
+            return ValidatedRecord.failed(record, record.getParseError());
+        }
+        Map<String, String> fields = record.getFields();
+        List<String> errors = new ArrayList<>();
+        
+        Product product = new Product();
+        product.setSku(text(fields, "sku", 64, true, errors));
+        product.setName(text(fields, "name", 255, true, errors));
+        product.setDescription(text(fields, "description", 2000, false, errors));
+        product.setCategory(text(fields, "category", 255, false, errors));
+        product.setBrand(text(fields, "brand", 255, false, errors));
+        product.setImageUrl(text(fields, "imageurl", 255, false, errors));
+        product.setPrice(amount(fields, "price", true, errors));
+        product.setDiscountPrice(amount(fields, "discountprice", false, errors));
+        product.setStockQuantity(quantity(fields, "stockquantity", errors));
+        product.setIsActive(flag(fields, "isactive", errors));
+        product.setIsFeatured(flag(fields, "isfeatured", errors));
+        
+        if (product.getPrice() != null && product.getDiscountPrice() != null
+            && product.getDiscountPrice().compareTo(product.getPrice()) >= 0) {
+            errors.add("discountPrice must be below price");
+        }
+        return errors.isEmpty()
+            ? ValidatedRecord.valid(record.getNumber(), product)
+            : ValidatedRecord.failed(record, String.join("; ", errors));
+    }
+    
+    private static String text(Map<String, String> fields, String name, int maxLength, boolean required,
+                               List<String> errors) {
+        String value = fields.get(name);
+        if (value == null) {
+            if (required) {
+                errors.add(name + " is required");
+            }
+            return null;
+        }
+        if (value.length() > maxLength) {
+            errors.add(name + " is longer than " + maxLength + " characters");
+            return null;
+        }
+        return value;
+    }
+    
+    private static BigDecimal amount(Map<String, String> fields, String name, boolean required, List<String> errors) {
+        String value = fields.get(name);
+        if (value == null) {
+            if (required) {
+                errors.add(name + " is required");
+            }
+            return null;
+        }
+        try {
+            BigDecimal amount = new BigDecimal(value);
+            if (amount.signum() < 0 || (required && amount.signum() == 0)) {
+                errors.add(name + " must be positive");
+                return null;
+            }
+            if (amount.scale() > 2) {
+                errors.add(name + " has more than two decimals");
+                return null;
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            errors.add(name + " is not a number: " + value);
+            return null;
+        }
+    }
+    
+    private static Integer quantity(Map<String, String> fields, String name, List<String> errors) {
+        String value = fields.get(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int quantity = Integer.parseInt(value);
+            if (quantity < 0) {
+                errors.add(name + " must not be negative");
+                return null;
+            }
+            return quantity;
+        } catch (NumberFormatException e) {
+            errors.add(name + " is not a whole number: " + value);
+            return null;
+        }
+    }
+    
+    private static Boolean flag(Map<String, String> fields, String name, List<String> errors) {
+        String value = fields.get(name);
+        if (value == null) {
+            return null;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.equals("true") || lower.equals("yes") || lower.equals("1")) {
+            return true;
+        }
+        if (lower.equals("false") || lower.equals("no") || lower.equals("0")) {
+            return false;
+        }
+        errors.add(name + " is not true or false: " + value);
+        return null;
+    }
+    
+    static final class ValidatedRecord {
+        private final long number;
+        private final String sku;
+        private final Product product;
+        private final String error;
+        
+        private ValidatedRecord(long number, String sku, Product product, String error) {
+            this.number = number;
+            this.sku = sku;
+            this.product = product;
+            this.error = error;
+        }
+        
+        static ValidatedRecord valid(long number, Product product) {
+            return new ValidatedRecord(number, product.getSku(), product, null);
+        }
+        
+        static ValidatedRecord failed(ProductImportRecord record, String error) {
+            String sku = record.getFields() != null ? record.getFields().get("sku") : null;
+            return new ValidatedRecord(record.getNumber(), sku, null, error);
+        }
+        
+        long number() {
+            return number;
+        }
+        
+        Product product() {
+            return product;
+        }
+        
+        String error() {
+            return error;
+        }
+        
+        String sku() {
+            return sku;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pulls records from a feed one at a time, so memory does not grow with the feed size.
+ */
+public interface ProductRecordReader extends Closeable {
+    
+    /**
+     * The next record, or null at the end of the feed.
+     */
+    ProductImportRecord next() throws IOException;
+    
+    static ProductRecordReader open(ImportFormat format, InputStream in, ObjectMapper objectMapper) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        return format == ImportFormat.CSV ? new CsvRecordReader(reader) : new NdjsonRecordReader(reader, objectMapper);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.metrics;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts JDBC round trips on the current thread, so each request can report how many it issued.
+ * Fed by the {@link StatementCountingDataSource} that {@link MetricsConfig} wraps around the pool,
+ * so JdbcTemplate batches are counted as well as Hibernate's statements.
+ */
+@Component
+public class SqlStatementCounter {
+    
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    
+    void increment() {
+        COUNT.get()[0]++;
+    }
+    
+    public void reset() {
+        COUNT.get()[0] = 0;
+    }
+    
+    public int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_status_due", columnList = "status, nextAttemptAt, id"),
+    @Index(name = "idx_outbox_aggregate", columnList = "aggregateId, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long aggregateId;
+    
+    @Column(nullable = false, length = 64)
+    private String type;
+    
+    @Column(nullable = false, length = 4000)
+    private String payload;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime nextAttemptAt;
+    
+    public OutboxEvent(Long aggregateId, String type, String payload) {
+        this.aggregateId = aggregateId;
+        this.type = type;
+        this.payload = payload;
+    }
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) nextAttemptAt = createdAt;
+    }
+    
+    public enum Status {
+        PENDING, DEAD
+    }
+}
@@ -4,19 +4,31 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_active_created", columnList = "isActive, createdAt, id"),
+    @Index(name = "idx_products_updated", columnList = "updatedAt"),
+    @Index(name = "idx_products_sku", columnList = "sku", unique = true)
+})
+// Entity saves write only changed columns, so an edit never writes back the stock it loaded
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     
+    // Supplier stock-keeping unit; the upsert key for bulk imports
+    @Column(length = 64)
+    private String sku;
+    
     @Column(nullable = false)
     private String name;
     
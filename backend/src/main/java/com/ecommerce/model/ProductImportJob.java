@@ -0,0 +1,65 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * One bulk product import. recordsCommitted is the checkpoint: it is written in the same
+ * transaction as each batch, so a resumed import skips exactly the records already stored.
+ */
+@Entity
+@Table(name = "product_import_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportJob {
+    @Id
+    @Column(length = 36)
+    private String id;
+    
+    @Column(nullable = false)
+    private String source;
+    
+    @Column(nullable = false, length = 16)
+    private String format;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.RUNNING;
+    
+    @Column(nullable = false)
+    private Long recordsCommitted = 0L;
+    
+    @Column(nullable = false)
+    private Long inserted = 0L;
+    
+    @Column(nullable = false)
+    private Long updated = 0L;
+    
+    @Column(nullable = false)
+    private Long failed = 0L;
+    
+    @Column(length = 1000)
+    private String lastError;
+    
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
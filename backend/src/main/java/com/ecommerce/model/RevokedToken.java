@@ -0,0 +1,41 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A revoked access token ("t:" + token id) or every access token of a user issued up to
+ * revokedAt ("u:" + user id). Kept until the tokens it covers would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_tokens_key", columnList = "tokenKey"),
+    @Index(name = "idx_revoked_tokens_revoked", columnList = "revokedAt"),
+    @Index(name = "idx_revoked_tokens_expires", columnList = "expiresAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 64)
+    private String tokenKey;
+    
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public RevokedToken(String tokenKey, LocalDateTime revokedAt, LocalDateTime expiresAt) {
+        this.tokenKey = tokenKey;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+}
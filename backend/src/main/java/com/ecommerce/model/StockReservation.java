@@ -0,0 +1,40 @@
+package com.ecommerce.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stock_reservations",
+    uniqueConstraints = @UniqueConstraint(name = "uk_reservation_user_product", columnNames = {"user_id", "product_id"}),
+    indexes = @Index(name = "idx_reservations_expires", columnList = "expiresAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+    
+    @Column(nullable = false)
+    private Integer quantity;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public StockReservation(User user, Product product) {
+        this.user = user;
+        this.product = product;
+        this.quantity = 0;
+    }
+}
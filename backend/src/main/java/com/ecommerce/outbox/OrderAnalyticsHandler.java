@@ -0,0 +1,53 @@
+package com.ecommerce.outbox;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+/**
+ * Order business metrics, fed from the outbox so they only count committed orders. Recently
+ * handled message ids are remembered so a redelivery is not counted twice.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderAnalyticsHandler implements OutboxHandler {
+    
+    private final MeterRegistry meterRegistry;
+    private final Cache<Long, Boolean> handled = Caffeine.newBuilder()
+        .maximumSize(100_000)
+        .expireAfterWrite(Duration.ofHours(1))
+        .build();
+    
+    @Override
+    public boolean supports(String type) {
+        return OrderEvents.ORDER_CREATED.equals(type) || OrderEvents.ORDER_STATUS_CHANGED.equals(type);
+    }
+    
+    @Override
+    public void handle(OutboxMessage message) {
+        if (handled.asMap().putIfAbsent(message.getId(), Boolean.TRUE) != null) {
+            return;
+        }
+        if (OrderEvents.ORDER_CREATED.equals(message.getType())) {
+            Counter.builder("orders.placed")
+                .description("Orders placed")
+                .register(meterRegistry)
+                .increment();
+            DistributionSummary.builder("orders.amount")
+                .description("Order totals")
+                .register(meterRegistry)
+                .record(message.getPayload().path("totalAmount").asDouble());
+        } else {
+            Counter.builder("orders.status.changes")
+                .description("Order status transitions")
+                .tag("to", message.getPayload().path("to").asText())
+                .register(meterRegistry)
+                .increment();
+        }
+    }
+}
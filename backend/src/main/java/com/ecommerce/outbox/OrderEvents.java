@@ -0,0 +1,12 @@
+package com.ecommerce.outbox;
+
+/**
+ * Outbox event types written by the order service; the aggregate id is the order id.
+ */
+public final class OrderEvents {
+    public static final String ORDER_CREATED = "order.created";
+    public static final String ORDER_STATUS_CHANGED = "order.status-changed";
+    
+    private OrderEvents() {
+    }
+}
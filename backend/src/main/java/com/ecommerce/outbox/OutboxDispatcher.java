@@ -0,0 +1,215 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.model.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the outbox to the registered {@link OutboxHandler}s. Each cycle reads a batch of due
+ * events in id order, delivers each order's events sequentially on a small worker pool (different
+ * orders in parallel) and deletes the delivered rows in one statement. A failed event is retried
+ * with exponential backoff and holds back the later events of its order until it is delivered or,
+ * after the last attempt, parked as DEAD for an operator to inspect.
+ * <p>
+ * Assumes a single dispatching instance: rows are not claimed, so two dispatchers would deliver
+ * the same events twice (still correct for idempotent handlers, but wasted work).
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher implements MeterBinder {
+    
+    private static final int MAX_ERROR_LENGTH = 1000;
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxHandler> handlers;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final ExecutorService workers;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dead = new LongAdder();
+    private volatile Timer lagTimer;
+    
+    public OutboxDispatcher(
+        OutboxEventRepository outboxEventRepository,
+        List<OutboxHandler> handlers,
+        ObjectMapper objectMapper,
+        @Value("${outbox.batch-size:200}") int batchSize,
+        @Value("${outbox.dispatch-threads:4}") int threads,
+        @Value("${outbox.max-attempts:10}") int maxAttempts,
+        @Value("${outbox.initial-backoff-ms:1000}") long initialBackoffMs,
+        @Value("${outbox.max-backoff-ms:300000}") long maxBackoffMs
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.handlers = handlers;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "outbox-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.dispatch-interval-ms:200}")
+    public void dispatch() {
+        // Keep draining while batches come back full, so a backlog doesn't wait a tick per batch
+        while (dispatchBatch() == batchSize) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+    
+    private int dispatchBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findDispatchable(LocalDateTime.now(),
+            OutboxEvent.Status.PENDING, OutboxEvent.Status.DEAD, PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byAggregate.computeIfAbsent(event.getAggregateId(), k -> new ArrayList<>()).add(event);
+        }
+        
+        Queue<Long> deliveredIds = new ConcurrentLinkedQueue<>();
+        List<Future<?>> tasks = new ArrayList<>(byAggregate.size());
+        for (List<OutboxEvent> events : byAggregate.values()) {
+            tasks.add(workers.submit(() -> deliverInOrder(events, deliveredIds)));
+        }
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // Recording the failure failed too; the event is still pending and will be retried
+                log.error("Outbox delivery bookkeeping failed", e.getCause());
+            }
+        }
+        
+        if (!deliveredIds.isEmpty()) {
+            outboxEventRepository.deleteDelivered(new ArrayList<>(deliveredIds));
+        }
+        return batch.size();
+    }
+    
+    private void deliverInOrder(List<OutboxEvent> events, Queue<Long> deliveredIds) {
+        for (OutboxEvent event : events) {
+            try {
+                deliver(event);
+            } catch (Exception e) {
+                recordFailure(event, e);
+                return;
+            }
+            deliveredIds.add(event.getId());
+            delivered.increment();
+            Timer timer = lagTimer;
+            if (timer != null) {
+                timer.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            }
+        }
+    }
+    
+    private void deliver(OutboxEvent event) throws Exception {
+        OutboxMessage message = new OutboxMessage(event.getId(), event.getAggregateId(), event.getType(),
+            objectMapper.readTree(event.getPayload()), event.getCreatedAt(), event.getAttempts() + 1);
+        for (OutboxHandler handler : handlers) {
+            if (handler.supports(event.getType())) {
+                handler.handle(message);
+            }
+        }
+    }
+    
+    private void recordFailure(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        String message = String.valueOf(error.getMessage());
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+        failed.increment();
+        if (attempts >= maxAttempts) {
+            dead.increment();
+            log.error("Outbox event {} ({} for {}) failed {} times, parking it", event.getId(), event.getType(),
+                event.getAggregateId(), attempts, error);
+            outboxEventRepository.recordFailure(event.getId(), attempts, event.getNextAttemptAt(),
+                OutboxEvent.Status.DEAD, message);
+            return;
+        }
+        long backoffMs = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempts - 1, 30));
+        log.warn("Outbox event {} ({} for {}) failed on attempt {}, retrying in {} ms: {}", event.getId(),
+            event.getType(), event.getAggregateId(), attempts, backoffMs, message);
+        outboxEventRepository.recordFailure(event.getId(), attempts,
+            LocalDateTime.now().plusNanos(backoffMs * 1_000_000), OutboxEvent.Status.PENDING, message);
+    }
+    
+    private double oldestPendingAgeSeconds() {
+        LocalDateTime oldest = outboxEventRepository.findOldestCreatedAt(OutboxEvent.Status.PENDING);
+        return oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0 : 0;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("outbox.delivered", delivered, LongAdder::sum)
+            .description("Outbox events delivered to every handler")
+            .register(registry);
+        FunctionCounter.builder("outbox.failed", failed, LongAdder::sum)
+            .description("Outbox delivery attempts that failed")
+            .register(registry);
+        FunctionCounter.builder("outbox.dead", dead, LongAdder::sum)
+            .description("Outbox events parked after their last attempt")
+            .register(registry);
+        // Read from the table when scraped, not on the dispatch path
+        Gauge.builder("outbox.pending", outboxEventRepository,
+                repository -> repository.countByStatus(OutboxEvent.Status.PENDING))
+            .description("Outbox events not yet delivered")
+            .register(registry);
+        Gauge.builder("outbox.oldest.age", this, OutboxDispatcher::oldestPendingAgeSeconds)
+            .description("Age of the oldest undelivered outbox event")
+            .baseUnit("seconds")
+            .register(registry);
+        lagTimer = Timer.builder("outbox.delivery.lag")
+            .description("Time from writing an outbox event to delivering it")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.outbox;
+
+/**
+ * In-process consumer of outbox events. Delivery is at-least-once: an event is redelivered when
+ * any handler for it throws, or when the process stops before the delivery is recorded, so
+ * handlers must be idempotent (the message id is stable across redeliveries). Events of one
+ * aggregate arrive in the order they were written.
+ */
+public interface OutboxHandler {
+    
+    boolean supports(String type);
+    
+    void handle(OutboxMessage message) throws Exception;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.time.LocalDateTime;
+
+/**
+ * One outbox event as handed to handlers. The id is stable across redeliveries.
+ */
+@Getter
+@AllArgsConstructor
+public class OutboxMessage {
+    private final Long id;
+    private final Long aggregateId;
+    private final String type;
+    private final JsonNode payload;
+    private final LocalDateTime createdAt;
+    private final int attempt;
+}
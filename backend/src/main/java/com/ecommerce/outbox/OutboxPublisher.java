@@ -0,0 +1,32 @@
+package com.ecommerce.outbox;
+
+import com.ecommerce.model.OutboxEvent;
+import com.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Map;
+
+/**
+ * Appends events to the outbox table. Must be called inside the transaction that makes the
+ * change, so the event is committed or rolled back together with it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxPublisher {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long aggregateId, String type, Map<String, Object> payload) {
+        try {
+            outboxEventRepository.save(new OutboxEvent(aggregateId, type, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + type + " event", e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.cart.CartLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Write-behind target for the in-memory cart store. Line ids are assigned by the store, so a
+ * line is written with an id-keyed upsert whether or not it has been persisted before.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartBatchRepository {
+    
+    private static final String UPSERT_SQL =
+        "INSERT INTO cart_items (id, user_id, product_id, quantity) VALUES (?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+    private static final String DELETE_SQL =
+        "DELETE FROM cart_items WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void upsertLines(List<CartLine> lines) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                CartLine line = lines.get(i);
+                ps.setLong(1, line.getId());
+                ps.setLong(2, line.getUserId());
+                ps.setLong(3, line.getProductId());
+                ps.setInt(4, line.getQuantity());
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+    }
+    
+    public void deleteLines(List<Long> lineIds) {
+        jdbcTemplate.batchUpdate(DELETE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, lineIds.get(i));
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return lineIds.size();
+            }
+        });
+    }
+}
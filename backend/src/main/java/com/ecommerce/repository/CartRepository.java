@@ -18,9 +18,9 @@ public interface CartRepository extends JpaRepository<CartItem, Long> {
     
     void deleteByUser(User user);
     
-    @Query("SELECT SUM(CASE WHEN ci.product.discountPrice IS NOT NULL THEN ci.product.discountPrice * ci.quantity ELSE ci.product.price * ci.quantity END) FROM CartItem ci WHERE ci.user = :user")
-    Double getCartTotal(@Param("user") User user);
+    @Query("SELECT ci FROM CartItem ci JOIN FETCH ci.product WHERE ci.user = :user")
+    List<CartItem> findWithProductByUser(@Param("user") User user);
     
-    @Query("SELECT COUNT(ci) FROM CartItem ci WHERE ci.user = :user")
-    Integer getCartItemCount(@Param("user") User user);
+    @Query("SELECT COALESCE(MAX(ci.id), 0) FROM CartItem ci")
+    Long findMaxId();
 }
@@ -0,0 +1,70 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads orders joined with their items from a forward-only cursor, one row at a time, for
+ * exports that must not hold the result in memory. Rows come ordered by (createdAt, id), so
+ * the items of an order are always adjacent.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderExportRepository {
+    
+    // Connector/J streams a forward-only, read-only result row by row with this fetch size,
+    // instead of buffering the whole result set on the client
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    
+    private static final String SELECT_SQL =
+        "SELECT o.id, o.created_at, o.status, o.total_amount, u.email, o.shipping_address, o.city, " +
+        "o.state, o.zip_code, o.country, o.phone, oi.id AS item_id, oi.product_id, p.name AS product_name, " +
+        "oi.quantity, oi.price " +
+        "FROM orders o " +
+        "JOIN users u ON u.id = o.user_id " +
+        "LEFT JOIN order_items oi ON oi.order_id = o.id " +
+        "LEFT JOIN products p ON p.id = oi.product_id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void streamOrderLines(LocalDateTime from, LocalDateTime to, Order.OrderStatus status,
+                                 RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+        if (status != null) {
+            conditions.add("o.status = ?");
+            params.add(status.name());
+        }
+        if (from != null) {
+            conditions.add("o.created_at >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            conditions.add("o.created_at < ?");
+            params.add(to);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY o.created_at, o.id");
+        
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, handler);
+    }
+}
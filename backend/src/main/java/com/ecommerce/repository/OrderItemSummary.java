@@ -0,0 +1,16 @@
+package com.ecommerce.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat order line projection joined with the product name and image, loaded for many orders in one query.
+ */
+public interface OrderItemSummary {
+    Long getId();
+    Long getOrderId();
+    Long getProductId();
+    String getProductName();
+    String getProductImage();
+    Integer getQuantity();
+    BigDecimal getPrice();
+}
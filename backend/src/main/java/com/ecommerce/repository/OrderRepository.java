@@ -5,8 +5,13 @@ import com.ecommerce.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -15,4 +20,38 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     Page<Order> findAllByOrderByCreatedAtDesc(Pageable pageable);
     
     List<Order> findByStatus(Order.OrderStatus status);
+    
+    @Query("SELECT oi.product.id, SUM(oi.quantity) FROM OrderItem oi GROUP BY oi.product.id")
+    List<Object[]> sumQuantityByProduct();
+    
+    @Query("SELECT o FROM Order o WHERE o.user.email = :email ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findByUserEmail(@Param("email") String email);
+    
+    @Query("SELECT o FROM Order o WHERE o.user.email = :email ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPageByUserEmail(@Param("email") String email, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.user.email = :email "
+        + "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) "
+        + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageByUserEmailBefore(
+        @Param("email") String email,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+    
+    @Query("SELECT o FROM Order o ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findFirstPage(Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) "
+        + "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT oi.id AS id, oi.order.id AS orderId, p.id AS productId, p.name AS productName, "
+        + "p.imageUrl AS productImage, oi.quantity AS quantity, oi.price AS price "
+        + "FROM OrderItem oi JOIN oi.product p WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemSummary> findItemSummaries(@Param("orderIds") Collection<Long> orderIds);
+    
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items i LEFT JOIN FETCH i.product WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") Long id);
 }
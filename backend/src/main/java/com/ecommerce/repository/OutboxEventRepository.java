@@ -0,0 +1,50 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Due events in id order, skipping any event whose aggregate has an earlier event that is
+     * waiting out a backoff or dead, so one order's events are never delivered out of order.
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :pending AND e.nextAttemptAt <= :now "
+        + "AND NOT EXISTS (SELECT 1 FROM OutboxEvent p WHERE p.aggregateId = e.aggregateId AND p.id < e.id "
+        + "AND (p.status = :dead OR p.nextAttemptAt > :now)) "
+        + "ORDER BY e.id")
+    List<OutboxEvent> findDispatchable(@Param("now") LocalDateTime now,
+                                       @Param("pending") OutboxEvent.Status pending,
+                                       @Param("dead") OutboxEvent.Status dead,
+                                       Pageable pageable);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteDelivered(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, "
+        + "e.status = :status, e.lastError = :lastError WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id,
+                      @Param("attempts") int attempts,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("status") OutboxEvent.Status status,
+                      @Param("lastError") String lastError);
+    
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxEvent.Status status);
+    
+    long countByStatus(OutboxEvent.Status status);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Narrow product projection for listing cards; leaves out the description column.
+ */
+public interface ProductCardRow {
+    Long getId();
+    String getName();
+    BigDecimal getPrice();
+    BigDecimal getDiscountPrice();
+    String getImageUrl();
+    String getCategory();
+    String getBrand();
+    Double getRating();
+    Integer getReviewCount();
+    Integer getStockQuantity();
+    Boolean getIsFeatured();
+    Boolean getIsActive();
+    LocalDateTime getCreatedAt();
+}
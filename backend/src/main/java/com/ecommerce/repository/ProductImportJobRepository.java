@@ -0,0 +1,36 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.ProductImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProductImportJobRepository extends JpaRepository<ProductImportJob, String> {
+    
+    /**
+     * Moves the checkpoint and adds the batch's counts; runs in the batch's transaction.
+     */
+    @Modifying
+    @Query("UPDATE ProductImportJob j SET j.recordsCommitted = :checkpoint, j.inserted = j.inserted + :inserted, "
+        + "j.updated = j.updated + :updated, j.failed = j.failed + :failed, j.updatedAt = :now WHERE j.id = :id")
+    int advance(@Param("id") String id,
+                @Param("checkpoint") long checkpoint,
+                @Param("inserted") long inserted,
+                @Param("updated") long updated,
+                @Param("failed") long failed,
+                @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE ProductImportJob j SET j.status = :status, j.lastError = :lastError, j.updatedAt = :now "
+        + "WHERE j.id = :id")
+    int updateStatus(@Param("id") String id,
+                     @Param("status") ProductImportJob.Status status,
+                     @Param("lastError") String lastError,
+                     @Param("now") LocalDateTime now);
+}
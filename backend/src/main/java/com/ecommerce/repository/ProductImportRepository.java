@@ -0,0 +1,94 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC side of the bulk product import: id blocks taken from the product sequence, SKU lookups
+ * and a SKU-keyed batch upsert. On update, values missing from the feed keep what is stored.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+    
+    // Must match the allocationSize of Product's sequence generator
+    private static final int ALLOCATION_SIZE = 50;
+    
+    private static final String UPSERT_SQL =
+        "INSERT INTO products (id, sku, name, description, price, discount_price, stock_quantity, category, " +
+        "image_url, brand, rating, review_count, is_active, is_featured, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE name = VALUES(name), price = VALUES(price), " +
+        "description = COALESCE(VALUES(description), description), " +
+        "discount_price = COALESCE(VALUES(discount_price), discount_price), " +
+        "stock_quantity = COALESCE(GREATEST(0, VALUES(stock_quantity) - " +
+        StockReservationRepository.HELD_QUANTITY_SQL + "), stock_quantity), " +
+        "category = COALESCE(VALUES(category), category), " +
+        "image_url = COALESCE(VALUES(image_url), image_url), " +
+        "brand = COALESCE(VALUES(brand), brand), " +
+        "is_active = COALESCE(VALUES(is_active), is_active), " +
+        "is_featured = COALESCE(VALUES(is_featured), is_featured), " +
+        "updated_at = VALUES(updated_at)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final SequenceBlockRepository sequenceBlocks;
+    
+    public long reserveIds(int count) {
+        return sequenceBlocks.reserve("product_seq", count, ALLOCATION_SIZE);
+    }
+    
+    public Map<String, Long> findIdsBySku(Collection<String> skus) {
+        Map<String, Long> ids = new HashMap<>();
+        if (skus.isEmpty()) {
+            return ids;
+        }
+        String placeholders = String.join(",", Collections.nCopies(skus.size(), "?"));
+        jdbcTemplate.query("SELECT sku, id FROM products WHERE sku IN (" + placeholders + ")",
+            rs -> {
+                ids.put(rs.getString(1), rs.getLong(2));
+            }, skus.toArray());
+        return ids;
+    }
+    
+    public void upsert(List<Product> products, LocalDateTime now) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Product product = products.get(i);
+                ps.setLong(1, product.getId());
+                ps.setString(2, product.getSku());
+                ps.setString(3, product.getName());
+                ps.setString(4, product.getDescription());
+                ps.setBigDecimal(5, product.getPrice());
+                ps.setBigDecimal(6, product.getDiscountPrice());
+                ps.setObject(7, product.getStockQuantity(), Types.INTEGER);
+                ps.setString(8, product.getCategory());
+                ps.setString(9, product.getImageUrl());
+                ps.setString(10, product.getBrand());
+                ps.setObject(11, product.getIsActive(), Types.BOOLEAN);
+                ps.setObject(12, product.getIsFeatured(), Types.BOOLEAN);
+                ps.setTimestamp(13, timestamp);
+                ps.setTimestamp(14, timestamp);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return products.size();
+            }
+        });
+    }
+}
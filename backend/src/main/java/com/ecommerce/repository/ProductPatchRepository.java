@@ -0,0 +1,88 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.dto.ProductPatch;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Partial price, stock and featured-flag updates sent as one JDBC batch of a single statement, so
+ * the driver rewrites a chunk into one round trip. Null parameters keep the stored value, and the
+ * discount rule is checked in the WHERE clause against the values the row would end up with. Stock is
+ * the amount on hand; units held in carts are subtracted before it is stored.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductPatchRepository {
+    
+    private static final String PATCH_SQL =
+        "UPDATE products SET price = COALESCE(?, price), " +
+        "discount_price = COALESCE(?, discount_price), " +
+        "stock_quantity = COALESCE(GREATEST(0, ? - " +
+        StockReservationRepository.HELD_QUANTITY_SQL + "), stock_quantity), " +
+        "is_featured = COALESCE(?, is_featured), " +
+        "updated_at = ? " +
+        "WHERE id = ? AND (COALESCE(?, discount_price) IS NULL OR COALESCE(?, discount_price) < COALESCE(?, price))";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public Set<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashSet<>();
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT id FROM products WHERE id IN (" + placeholders + ")", Long.class, ids.toArray()));
+    }
+    
+    /**
+     * Returns the per-patch row counts, in the order given; 0 means no such product or a discount conflict.
+     */
+    public int[] apply(List<ProductPatch> patches, LocalDateTime now) {
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        return jdbcTemplate.batchUpdate(PATCH_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProductPatch patch = patches.get(i);
+                BigDecimal price = patch.getPrice() != null ? BigDecimal.valueOf(patch.getPrice()) : null;
+                BigDecimal discount = patch.getDiscountPrice() != null
+                    ? BigDecimal.valueOf(patch.getDiscountPrice())
+                    : null;
+                ps.setBigDecimal(1, price);
+                ps.setBigDecimal(2, discount);
+                if (patch.getStockQuantity() != null) {
+                    ps.setInt(3, patch.getStockQuantity());
+                } else {
+                    ps.setNull(3, Types.INTEGER);
+                }
+                if (patch.getIsFeatured() != null) {
+                    ps.setBoolean(4, patch.getIsFeatured());
+                } else {
+                    ps.setNull(4, Types.BOOLEAN);
+                }
+                ps.setTimestamp(5, updatedAt);
+                ps.setLong(6, patch.getId());
+                ps.setBigDecimal(7, discount);
+                ps.setBigDecimal(8, discount);
+                ps.setBigDecimal(9, price);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return patches.size();
+            }
+        });
+    }
+}
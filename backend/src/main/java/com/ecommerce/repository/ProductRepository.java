@@ -4,25 +4,75 @@ import com.ecommerce.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-    Page<Product> findByIsActiveTrue(Pageable pageable);
-    
-    Page<Product> findByCategoryAndIsActiveTrue(String category, Pageable pageable);
-    
-    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.isFeatured = true")
-    List<Product> findFeaturedProducts();
+    String CARD_SELECT = "SELECT p.id AS id, p.name AS name, p.price AS price, p.discountPrice AS discountPrice, "
+        + "p.imageUrl AS imageUrl, p.category AS category, p.brand AS brand, p.rating AS rating, "
+        + "p.reviewCount AS reviewCount, p.stockQuantity AS stockQuantity, p.isFeatured AS isFeatured, "
+        + "p.isActive AS isActive, p.createdAt AS createdAt FROM Product p ";
     
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<Product> searchProducts(@Param("search") String search, Pageable pageable);
     
     List<Product> findByIsActiveTrueOrderByCreatedAtDesc();
     
+    Page<Product> findByIsActiveTrue(Pageable pageable);
+    
+    @Query("SELECT MAX(p.updatedAt) FROM Product p")
+    LocalDateTime findLastUpdatedAt();
+    
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.isActive = true")
     List<String> findAllCategories();
+    
+    @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<Product> findActiveAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    List<Product> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+    
+    @Query("SELECT p FROM Product p WHERE p.isActive = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findFirstActivePage(Pageable pageable);
+    
+    @Query("SELECT p FROM Product p WHERE p.isActive = true "
+        + "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+        + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Product> findActivePageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    @Query(CARD_SELECT + "WHERE p.isActive = true")
+    Page<ProductCardRow> findActiveCards(Pageable pageable);
+    
+    @Query(CARD_SELECT + "WHERE p.isActive = true AND p.category = :category")
+    Page<ProductCardRow> findActiveCardsByCategory(@Param("category") String category, Pageable pageable);
+    
+    @Query(CARD_SELECT + "WHERE p.isActive = true AND p.isFeatured = true ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProductCardRow> findFeaturedCards();
+    
+    @Query(CARD_SELECT + "WHERE p.isActive = true AND p.id > :afterId ORDER BY p.id")
+    List<ProductCardRow> findActiveCardsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(CARD_SELECT + "WHERE p.id IN :ids")
+    List<ProductCardRow> findCardsByIds(@Param("ids") Collection<Long> ids);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE products SET stock_quantity = GREATEST(0, :onHand - "
+        + StockReservationRepository.HELD_QUANTITY_SQL + ") WHERE id = :id", nativeQuery = true)
+    int setStockOnHand(@Param("id") Long id, @Param("onHand") int onHand);
+    
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Integer findStockQuantity(@Param("id") Long id);
 }
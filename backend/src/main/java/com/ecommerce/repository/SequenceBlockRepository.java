@@ -0,0 +1,29 @@
+package com.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Blocks of ids taken from the table-emulated sequences for rows written over JDBC.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SequenceBlockRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Reserves count ids and returns the first; the block is [first, first + count). Hibernate's
+     * pooled optimizer hands out the allocationSize ids up to each value it reads, so the sequence
+     * is moved one block past the reservation to keep the next Hibernate block clear of it.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserve(String sequence, long count, int allocationSize) {
+        Long next = jdbcTemplate.queryForObject("SELECT next_val FROM " + sequence + " FOR UPDATE", Long.class);
+        jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ?", next + count + allocationSize);
+        return next;
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * Set-based stock and reservation writes sent as one JDBC batch, so a checkout costs the same
+ * number of round trips whatever the cart size. Rows are touched in ascending id order to keep
+ * lock acquisition consistent between concurrent checkouts.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockBatchRepository {
+    
+    private static final String DECREMENT_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+    private static final String INCREMENT_SQL =
+        "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?";
+    private static final String DELETE_RESERVATION_SQL =
+        "DELETE FROM stock_reservations WHERE id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    /**
+     * Returns the ids whose conditional decrement matched no row, i.e. lacked stock.
+     */
+    public List<Long> decrementStock(SortedMap<Long, Integer> quantities) {
+        List<Long> ids = new ArrayList<>(quantities.keySet());
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int quantity = quantities.get(ids.get(i));
+                ps.setInt(1, quantity);
+                ps.setLong(2, ids.get(i));
+                ps.setInt(3, quantity);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+        
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                failed.add(ids.get(i));
+            }
+        }
+        return failed;
+    }
+    
+    public void incrementStock(SortedMap<Long, Integer> quantities) {
+        List<Long> ids = new ArrayList<>(quantities.keySet());
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setInt(1, quantities.get(ids.get(i)));
+                ps.setLong(2, ids.get(i));
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return ids.size();
+            }
+        });
+    }
+    
+    /**
+     * Deletes the reservations and returns the per-row delete counts; 1 means this caller claimed it.
+     */
+    public int[] deleteReservations(List<Long> reservationIds) {
+        return jdbcTemplate.batchUpdate(DELETE_RESERVATION_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, reservationIds.get(i));
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return reservationIds.size();
+            }
+        });
+    }
+}
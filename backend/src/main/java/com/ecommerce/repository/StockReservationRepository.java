@@ -0,0 +1,39 @@
+package com.ecommerce.repository;
+
+import com.ecommerce.model.Product;
+import com.ecommerce.model.StockReservation;
+import com.ecommerce.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    /**
+     * Units held in carts for the {@code products} row being written. Admin and import stock values are stock
+     * on hand, while stock_quantity only counts unreserved units, so absolute writes subtract this first.
+     */
+    String HELD_QUANTITY_SQL =
+        "(SELECT COALESCE(SUM(r.quantity), 0) FROM stock_reservations r WHERE r.product_id = products.id)";
+    
+    Optional<StockReservation> findByUserAndProduct(User user, Product product);
+    
+    List<StockReservation> findByUser(User user);
+    
+    @Query("SELECT r FROM StockReservation r WHERE r.expiresAt < :now ORDER BY r.id")
+    List<StockReservation> findExpired(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Returns 1 only for the caller that actually removed the row, so the held stock is
+     * returned or consumed exactly once even when checkout and the expiry sweep race.
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id")
+    int deleteReservation(@Param("id") Long id);
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+/**
+ * Multi-row inserts for the synthetic data generator. Rows arrive with their ids assigned, so each
+ * list is one JDBC batch that the driver rewrites into a few large INSERT statements.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyntheticDataRepository {
+    
+    private static final String PRODUCT_SQL =
+        "INSERT INTO products (id, sku, name, description, price, discount_price, stock_quantity, category, " +
+        "image_url, brand, rating, review_count, is_active, is_featured, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String USER_SQL =
+        "INSERT INTO users (id, email, password, first_name, last_name, phone, address, city, state, zip_code, " +
+        "country, role, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ORDER_SQL =
+        "INSERT INTO orders (id, user_id, total_amount, status, shipping_address, city, state, zip_code, country, " +
+        "phone, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ORDER_ITEM_SQL =
+        "INSERT INTO order_items (id, order_id, product_id, quantity, price) VALUES (?, ?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public boolean userExists(String email) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email);
+        return count != null && count > 0;
+    }
+    
+    public long maxUserId() {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class);
+        return max != null ? max : 0;
+    }
+    
+    public void insertProducts(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(PRODUCT_SQL, rows);
+    }
+    
+    public void insertUsers(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(USER_SQL, rows);
+    }
+    
+    public void insertOrders(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(ORDER_SQL, rows);
+    }
+    
+    public void insertOrderItems(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(ORDER_ITEM_SQL, rows);
+    }
+}
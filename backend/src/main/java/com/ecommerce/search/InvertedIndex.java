@@ -0,0 +1,250 @@
+package com.ecommerce.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Field-weighted inverted index ranked with BM25. Updates tombstone the old doc id and append a
+ * new one; dead docs are dropped by {@link #compact()}. Not thread-safe, callers hold a lock.
+ */
+final class InvertedIndex {
+    static final int NAME_WEIGHT = 3;
+    static final int BRAND_WEIGHT = 2;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+    
+    private static final int SNAPSHOT_MAGIC = 0x53494458;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_DEAD_FOR_COMPACTION = 1024;
+    
+    private TreeMap<String, Postings> terms = new TreeMap<>();
+    private long[] productIds = new long[64];
+    private int[] docLengths = new int[64];
+    private BitSet live = new BitSet();
+    private final Map<Long, Integer> docByProduct = new HashMap<>();
+    private int docCount;
+    private int liveCount;
+    private long totalLength;
+    
+    void index(long productId, String name, String brand, String category, String description) {
+        remove(productId);
+        
+        Map<String, Integer> freqs = new HashMap<>();
+        int length = addField(freqs, name, NAME_WEIGHT)
+            + addField(freqs, brand, BRAND_WEIGHT)
+            + addField(freqs, category, CATEGORY_WEIGHT)
+            + addField(freqs, description, DESCRIPTION_WEIGHT);
+        
+        int doc = docCount++;
+        if (doc == productIds.length) {
+            productIds = Arrays.copyOf(productIds, doc * 2);
+            docLengths = Arrays.copyOf(docLengths, doc * 2);
+        }
+        productIds[doc] = productId;
+        docLengths[doc] = length;
+        live.set(doc);
+        liveCount++;
+        totalLength += length;
+        docByProduct.put(productId, doc);
+        
+        for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), k -> new Postings()).add(doc, entry.getValue());
+        }
+        
+        int dead = docCount - liveCount;
+        if (dead >= MIN_DEAD_FOR_COMPACTION && dead > liveCount) {
+            compact();
+        }
+    }
+    
+    void remove(long productId) {
+        Integer doc = docByProduct.remove(productId);
+        if (doc != null) {
+            live.clear(doc);
+            liveCount--;
+            totalLength -= docLengths[doc];
+        }
+    }
+    
+    int size() {
+        return liveCount;
+    }
+    
+    /**
+     * Every query token must match (the last one as a prefix, for search-as-you-type).
+     * Returns the total hit count and fills {@code out} with the requested page of product ids.
+     */
+    int search(String query, int offset, int limit, List<Long> out) {
+        List<String> tokens = Tokenizer.tokenize(query);
+        if (tokens.isEmpty() || liveCount == 0) {
+            return 0;
+        }
+        
+        float[] scores = new float[docCount];
+        int[] matchedTokens = new int[docCount];
+        int[] lastMatchedBy = new int[docCount];
+        float avgLength = Math.max(1f, (float) totalLength / liveCount);
+        
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            Iterable<Postings> lists;
+            if (t == tokens.size() - 1) {
+                lists = terms.subMap(token, true, token + Character.MAX_VALUE, true).values();
+            } else {
+                Postings exact = terms.get(token);
+                if (exact == null) {
+                    return 0;
+                }
+                lists = List.of(exact);
+            }
+            
+            for (Postings postings : lists) {
+                float idf = (float) Math.log(1 + (liveCount - postings.size + 0.5) / (postings.size + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    if (!live.get(doc)) {
+                        continue;
+                    }
+                    float tf = postings.freqs[i];
+                    float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    scores[doc] += Math.max(idf, 0.01f) * (tf * (K1 + 1)) / (tf + norm);
+                    if (lastMatchedBy[doc] != t + 1) {
+                        lastMatchedBy[doc] = t + 1;
+                        matchedTokens[doc]++;
+                    }
+                }
+            }
+        }
+        
+        // Pack (score, doc) into longs so ranking is a primitive sort; positive float bits order like the floats.
+        long[] ranked = new long[16];
+        int hits = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (matchedTokens[doc] == tokens.size()) {
+                if (hits == ranked.length) {
+                    ranked = Arrays.copyOf(ranked, hits * 2);
+                }
+                ranked[hits++] = ((long) Float.floatToIntBits(scores[doc]) << 32) | doc;
+            }
+        }
+        Arrays.sort(ranked, 0, hits);
+        
+        for (int i = hits - 1 - offset; i >= 0 && out.size() < limit; i--) {
+            out.add(productIds[(int) ranked[i]]);
+        }
+        return hits;
+    }
+    
+    void compact() {
+        int[] remap = new int[docCount];
+        long[] newProductIds = new long[Math.max(64, liveCount)];
+        int[] newDocLengths = new int[newProductIds.length];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (live.get(doc)) {
+                remap[doc] = next;
+                newProductIds[next] = productIds[doc];
+                newDocLengths[next] = docLengths[doc];
+                next++;
+            } else {
+                remap[doc] = -1;
+            }
+        }
+        
+        TreeMap<String, Postings> newTerms = new TreeMap<>();
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+            Postings old = entry.getValue();
+            Postings compacted = new Postings(Math.max(1, old.size));
+            for (int i = 0; i < old.size; i++) {
+                int doc = remap[old.docs[i]];
+                if (doc >= 0) {
+                    compacted.add(doc, old.freqs[i]);
+                }
+            }
+            if (compacted.size > 0) {
+                newTerms.put(entry.getKey(), compacted);
+            }
+        }
+        
+        terms = newTerms;
+        productIds = newProductIds;
+        docLengths = newDocLengths;
+        docCount = next;
+        live = new BitSet(next);
+        live.set(0, next);
+        docByProduct.clear();
+        for (int doc = 0; doc < next; doc++) {
+            docByProduct.put(productIds[doc], doc);
+        }
+    }
+    
+    void writeTo(DataOutputStream out) throws IOException {
+        compact();
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(docCount);
+        for (int doc = 0; doc < docCount; doc++) {
+            out.writeLong(productIds[doc]);
+            out.writeInt(docLengths[doc]);
+        }
+        out.writeInt(terms.size());
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+            Postings postings = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(postings.size);
+            for (int i = 0; i < postings.size; i++) {
+                out.writeInt(postings.docs[i]);
+                out.writeInt(postings.freqs[i]);
+            }
+        }
+    }
+    
+    static InvertedIndex readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+            throw new IOException("Unrecognized search index snapshot");
+        }
+        
+        InvertedIndex index = new InvertedIndex();
+        int docs = in.readInt();
+        index.productIds = new long[Math.max(64, docs)];
+        index.docLengths = new int[index.productIds.length];
+        for (int doc = 0; doc < docs; doc++) {
+            index.productIds[doc] = in.readLong();
+            index.docLengths[doc] = in.readInt();
+            index.totalLength += index.docLengths[doc];
+            index.docByProduct.put(index.productIds[doc], doc);
+        }
+        index.docCount = docs;
+        index.liveCount = docs;
+        index.live.set(0, docs);
+        
+        int termCount = in.readInt();
+        for (int t = 0; t < termCount; t++) {
+            String term = in.readUTF();
+            int size = in.readInt();
+            Postings postings = new Postings(Math.max(1, size));
+            for (int i = 0; i < size; i++) {
+                postings.add(in.readInt(), in.readInt());
+            }
+            index.terms.put(term, postings);
+        }
+        return index;
+    }
+    
+    private static int addField(Map<String, Integer> freqs, String text, int weight) {
+        List<String> tokens = Tokenizer.tokenize(text);
+        for (String token : tokens) {
+            freqs.merge(token, weight, Integer::sum);
+        }
+        return tokens.size() * weight;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.search;
+
+import java.util.Arrays;
+
+/**
+ * Doc ids are appended in increasing order, so each list stays sorted without extra work.
+ */
+final class Postings {
+    int[] docs;
+    int[] freqs;
+    int size;
+    
+    Postings() {
+        this(4);
+    }
+    
+    Postings(int capacity) {
+        docs = new int[capacity];
+        freqs = new int[capacity];
+    }
+    
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecommerce.search;
+
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.ProductsImportedEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+    
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    
+    private final ProductRepository productRepository;
+    
+    @Value("${search.index.snapshot-path:search-index.bin}")
+    private String snapshotPath;
+    
+    @Value("${search.index.catch-up-margin-seconds:300}")
+    private long catchUpMarginSeconds;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private InvertedIndex index = new InvertedIndex();
+    private LocalDateTime watermark;
+    private volatile boolean ready;
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        long start = System.currentTimeMillis();
+        if (loadSnapshot()) {
+            // A row can commit after the snapshot with an updatedAt at or before its watermark (same
+            // timestamp, or a transaction still open at the time), so re-read a margin before it
+            Map<Long, Product> changed = new LinkedHashMap<>();
+            if (watermark != null) {
+                LocalDateTime since = watermark.minusSeconds(catchUpMarginSeconds);
+                for (Product product : productRepository.findByUpdatedAtGreaterThanEqual(since)) {
+                    changed.putIfAbsent(product.getId(), product);
+                }
+            }
+            changed.values().forEach(this::apply);
+            log.info("Search index loaded from snapshot with {} documents ({} changed since) in {} ms",
+                index.size(), changed.size(), System.currentTimeMillis() - start);
+        } else {
+            rebuild();
+            log.info("Search index rebuilt from database with {} documents in {} ms",
+                index.size(), System.currentTimeMillis() - start);
+        }
+        ready = true;
+    }
+    
+    public void rebuild() {
+        InvertedIndex fresh = new InvertedIndex();
+        LocalDateTime newest = null;
+        Long afterId = 0L;
+        List<Product> batch;
+        do {
+            batch = productRepository.findActiveAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Product product : batch) {
+                addTo(fresh, product);
+                newest = later(newest, product.getUpdatedAt());
+                afterId = product.getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        
+        lock.writeLock().lock();
+        try {
+            index = fresh;
+            watermark = newest;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        saveSnapshot();
+    }
+    
+    public SearchHits search(String query, int offset, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            int total = index.search(query, offset, limit, ids);
+            return new SearchHits(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.getProducts().forEach(this::apply);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        long start = System.currentTimeMillis();
+        rebuild();
+        log.info("Search index rebuilt after import of {} products in {} ms",
+            event.getProductCount(), System.currentTimeMillis() - start);
+    }
+    
+    @PreDestroy
+    public void saveSnapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+        Path target = Paths.get(snapshotPath);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        lock.writeLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeUTF(watermark != null ? watermark.toString() : "");
+            index.writeTo(out);
+        } catch (IOException e) {
+            log.warn("Could not write search index snapshot to {}: {}", target, e.getMessage());
+            return;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Could not replace search index snapshot {}: {}", target, e.getMessage());
+        }
+    }
+    
+    private boolean loadSnapshot() {
+        if (snapshotPath == null || snapshotPath.isBlank() || !Files.isReadable(Paths.get(snapshotPath))) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(snapshotPath))))) {
+            String mark = in.readUTF();
+            InvertedIndex loaded = InvertedIndex.readFrom(in);
+            lock.writeLock().lock();
+            try {
+                index = loaded;
+                watermark = mark.isEmpty() ? null : LocalDateTime.parse(mark);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable search index snapshot {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void apply(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (Boolean.TRUE.equals(product.getIsActive())) {
+                addTo(index, product);
+            } else {
+                index.remove(product.getId());
+            }
+            watermark = later(watermark, product.getUpdatedAt());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private static void addTo(InvertedIndex target, Product product) {
+        target.index(product.getId(), product.getName(), product.getBrand(),
+            product.getCategory(), product.getDescription());
+    }
+    
+    private static LocalDateTime later(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecommerce.search;
+
+import com.ecommerce.dto.SuggestionDTO;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.ProductsImportedEvent;
+import com.ecommerce.model.Product;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSuggester {
+    
+    private static final byte PRODUCT = 0;
+    private static final byte BRAND = 1;
+    private static final byte CATEGORY = 2;
+    private static final String[] TYPE_NAMES = {"PRODUCT", "BRAND", "CATEGORY"};
+    private static final int ORDERED_UNIT_WEIGHT = 5;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    
+    @Value("${search.suggest.rebuild-delay-ms:2000}")
+    private long rebuildDelayMs;
+    
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "suggest-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private volatile SuggestionTrie trie = SuggestionTrie.EMPTY;
+    
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        SuggestionTrie current = trie;
+        int[] hits = current.lookup(prefix, Math.max(1, Math.min(limit, SuggestionTrie.MAX_K)));
+        List<SuggestionDTO> suggestions = new ArrayList<>(hits.length);
+        for (int hit : hits) {
+            byte type = current.type(hit);
+            suggestions.add(new SuggestionDTO(
+                current.text(hit),
+                TYPE_NAMES[type],
+                type == PRODUCT ? current.productId(hit) : null
+            ));
+        }
+        return suggestions;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        scheduleRebuild(0);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        scheduleRebuild(rebuildDelayMs);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsImported(ProductsImportedEvent event) {
+        scheduleRebuild(rebuildDelayMs);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+    
+    private void scheduleRebuild(long delayMs) {
+        // Bursts of product writes collapse into a single rebuild.
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuilder.schedule(this::rebuild, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    void rebuild() {
+        rebuildPending.set(false);
+        long start = System.currentTimeMillis();
+        try {
+            Map<Long, Long> unitsOrdered = new HashMap<>();
+            for (Object[] row : orderRepository.sumQuantityByProduct()) {
+                unitsOrdered.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+            
+            SuggestionTrie.Builder builder = new SuggestionTrie.Builder();
+            Map<String, Long> brandWeights = new HashMap<>();
+            Map<String, Long> categoryWeights = new HashMap<>();
+            Long afterId = 0L;
+            List<Product> batch;
+            do {
+                batch = productRepository.findActiveAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Product product : batch) {
+                    long weight = 1
+                        + (product.getReviewCount() != null ? product.getReviewCount() : 0)
+                        + ORDERED_UNIT_WEIGHT * unitsOrdered.getOrDefault(product.getId(), 0L);
+                    builder.add(product.getName(), PRODUCT, product.getId(), weight);
+                    if (product.getBrand() != null) {
+                        brandWeights.merge(product.getBrand(), weight, Long::sum);
+                    }
+                    if (product.getCategory() != null) {
+                        categoryWeights.merge(product.getCategory(), weight, Long::sum);
+                    }
+                    afterId = product.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            
+            brandWeights.forEach((brand, weight) -> builder.add(brand, BRAND, 0, weight));
+            categoryWeights.forEach((category, weight) -> builder.add(category, CATEGORY, 0, weight));
+            trie = builder.build();
+            log.info("Suggestion trie rebuilt with {} nodes in {} ms", trie.nodeCount(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Suggestion trie rebuild failed: ", e);
+        }
+    }
+}
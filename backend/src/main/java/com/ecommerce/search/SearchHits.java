@@ -0,0 +1,12 @@
+package com.ecommerce.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SearchHits {
+    private final List<Long> productIds;
+    private final long totalHits;
+}
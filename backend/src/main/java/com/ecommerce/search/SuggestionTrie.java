@@ -0,0 +1,224 @@
+package com.ecommerce.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable completion trie packed into parallel arrays. Every node carries its precomputed
+ * top-k suggestions, so a lookup is a walk down the prefix followed by an array slice.
+ * Children of a node are stored contiguously and sorted by label for binary search.
+ */
+final class SuggestionTrie {
+    static final int MAX_K = 10;
+    static final int MAX_KEY_LENGTH = 32;
+    
+    static final SuggestionTrie EMPTY = new Builder().build();
+    
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topStart;
+    private final byte[] topCount;
+    private final int[] topPool;
+    
+    private final String[] texts;
+    private final byte[] types;
+    private final long[] productIds;
+    
+    private SuggestionTrie(char[] labels, int[] firstChild, int[] childCount, int[] topStart, byte[] topCount,
+                           int[] topPool, String[] texts, byte[] types, long[] productIds) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topStart = topStart;
+        this.topCount = topCount;
+        this.topPool = topPool;
+        this.texts = texts;
+        this.types = types;
+        this.productIds = productIds;
+    }
+    
+    /**
+     * Returns suggestion ordinals for the prefix, best first. Use {@link #text}, {@link #type}
+     * and {@link #productId} to resolve them.
+     */
+    int[] lookup(String prefix, int k) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return new int[0];
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            key = key.substring(0, MAX_KEY_LENGTH);
+        }
+        
+        int node = 0;
+        for (int i = 0; i < key.length(); i++) {
+            node = child(node, key.charAt(i));
+            if (node < 0) {
+                return new int[0];
+            }
+        }
+        int count = Math.max(0, Math.min(k, topCount[node]));
+        return Arrays.copyOfRange(topPool, topStart[node], topStart[node] + count);
+    }
+    
+    String text(int suggestion) {
+        return texts[suggestion];
+    }
+    
+    byte type(int suggestion) {
+        return types[suggestion];
+    }
+    
+    long productId(int suggestion) {
+        return productIds[suggestion];
+    }
+    
+    int nodeCount() {
+        return labels.length;
+    }
+    
+    private int child(int node, char label) {
+        int lo = firstChild[node];
+        int hi = lo + childCount[node] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char c = labels[mid];
+            if (c < label) {
+                lo = mid + 1;
+            } else if (c > label) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+    
+    static String normalize(String text) {
+        return String.join(" ", Tokenizer.tokenize(text));
+    }
+    
+    static final class Builder {
+        private final Node root = new Node((char) 0);
+        private final List<String> texts = new ArrayList<>();
+        private final List<Byte> types = new ArrayList<>();
+        private final List<Long> productIds = new ArrayList<>();
+        
+        /**
+         * Indexes the text under every word start, so "wire" completes "Premium Wireless Headphones".
+         */
+        Builder add(String text, byte type, long productId, long weight) {
+            String key = normalize(text);
+            if (key.isEmpty()) {
+                return this;
+            }
+            
+            int suggestion = texts.size();
+            texts.add(text);
+            types.add(type);
+            productIds.add(productId);
+            
+            for (int start = 0; start < key.length(); start++) {
+                if (start > 0 && key.charAt(start - 1) != ' ') {
+                    continue;
+                }
+                Node node = root;
+                int end = Math.min(key.length(), start + MAX_KEY_LENGTH);
+                for (int i = start; i < end; i++) {
+                    node = node.children.computeIfAbsent(key.charAt(i), Node::new);
+                    node.offer(suggestion, weight);
+                }
+            }
+            return this;
+        }
+        
+        SuggestionTrie build() {
+            List<Node> order = new ArrayList<>();
+            Deque<Node> queue = new ArrayDeque<>();
+            queue.add(root);
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                order.add(node);
+                queue.addAll(node.children.values());
+            }
+            
+            int size = order.size();
+            char[] labels = new char[size];
+            int[] firstChild = new int[size];
+            int[] childCount = new int[size];
+            int[] topStart = new int[size];
+            byte[] topCount = new byte[size];
+            int poolSize = 0;
+            for (Node node : order) {
+                poolSize += node.topSize;
+            }
+            int[] topPool = new int[poolSize];
+            
+            // Breadth-first numbering keeps each node's children in one contiguous, label-sorted run.
+            int nextChild = 1;
+            int nextPool = 0;
+            for (int i = 0; i < size; i++) {
+                Node node = order.get(i);
+                labels[i] = node.label;
+                firstChild[i] = nextChild;
+                childCount[i] = node.children.size();
+                nextChild += node.children.size();
+                topStart[i] = nextPool;
+                topCount[i] = (byte) node.topSize;
+                System.arraycopy(node.top, 0, topPool, nextPool, node.topSize);
+                nextPool += node.topSize;
+            }
+            
+            int count = texts.size();
+            byte[] typeArray = new byte[count];
+            long[] productIdArray = new long[count];
+            for (int i = 0; i < count; i++) {
+                typeArray[i] = types.get(i);
+                productIdArray[i] = productIds.get(i);
+            }
+            return new SuggestionTrie(labels, firstChild, childCount, topStart, topCount, topPool,
+                texts.toArray(new String[0]), typeArray, productIdArray);
+        }
+    }
+    
+    private static final class Node {
+        final char label;
+        final Map<Character, Node> children = new TreeMap<>();
+        final int[] top = new int[MAX_K];
+        final long[] topWeights = new long[MAX_K];
+        int topSize;
+        
+        Node(char label) {
+            this.label = label;
+        }
+        
+        void offer(int suggestion, long weight) {
+            for (int i = 0; i < topSize; i++) {
+                if (top[i] == suggestion) {
+                    return;
+                }
+            }
+            if (topSize == MAX_K && weight <= topWeights[MAX_K - 1]) {
+                return;
+            }
+            
+            int pos = Math.min(topSize, MAX_K - 1);
+            while (pos > 0 && topWeights[pos - 1] < weight) {
+                top[pos] = top[pos - 1];
+                topWeights[pos] = topWeights[pos - 1];
+                pos--;
+            }
+            top[pos] = suggestion;
+            topWeights[pos] = weight;
+            if (topSize < MAX_K) {
+                topSize++;
+            }
+        }
+    }
+}
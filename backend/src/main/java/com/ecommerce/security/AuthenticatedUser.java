@@ -0,0 +1,35 @@
+package com.ecommerce.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Lightweight principal stored in the security context instead of the User entity.
+ * Implements {@link Principal} so {@code Authentication.getName()} yields the email.
+ */
+@Getter
+public class AuthenticatedUser implements Principal {
+    private final Long id;
+    private final String email;
+    private final String role;
+    private final String tokenId;
+    private final long tokenExpiresAtMillis;
+    private final List<GrantedAuthority> authorities;
+    
+    public AuthenticatedUser(Long id, String email, String role, String tokenId, long tokenExpiresAtMillis) {
+        this.id = id;
+        this.email = email;
+        this.role = role;
+        this.tokenId = tokenId;
+        this.tokenExpiresAtMillis = tokenExpiresAtMillis;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,182 @@
+package com.ecommerce.security;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BCrypt on a dedicated, bounded pool. Hashing CPU is capped at the pool size whatever the request
+ * concurrency, and once the queue is full further logins and registrations fail fast with
+ * {@link PasswordHashingBusyException} instead of piling up on request threads. The work factor
+ * is calibrated at startup as the highest cost whose hash still fits the latency target (never
+ * below min-cost); hashes stored at a lower cost are upgraded on the next successful login.
+ */
+@Component
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, MeterBinder {
+    
+    private final BCryptPasswordEncoder delegate;
+    private final int cost;
+    private final ThreadPoolExecutor pool;
+    private final ArrayBlockingQueue<Runnable> queue;
+    private final LongAdder rejected = new LongAdder();
+    private volatile Timer encodeTimer;
+    private volatile Timer matchTimer;
+    private volatile Timer waitTimer;
+    
+    public BoundedPasswordEncoder(
+        @Value("${auth.hashing.threads:0}") int threads,
+        @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+        @Value("${auth.hashing.cost:0}") int fixedCost,
+        @Value("${auth.hashing.min-cost:10}") int minCost,
+        @Value("${auth.hashing.max-cost:14}") int maxCost,
+        @Value("${auth.hashing.target-ms:150}") long targetMillis
+    ) {
+        this.cost = fixedCost > 0 ? fixedCost : calibrate(minCost, maxCost, targetMillis);
+        this.delegate = new BCryptPasswordEncoder(cost);
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        log.info("Password hashing: BCrypt cost {}, {} threads, queue {}", cost, poolSize, queueCapacity);
+    }
+    
+    public int getCost() {
+        return cost;
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword), matchTimer);
+    }
+    
+    /**
+     * True when the stored hash is below the current cost. Skipped while the pool is backed up, so
+     * an upgrade never turns a successful login into a rejected one; it happens on a later login.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return queue.size() < queue.remainingCapacity() && delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> T submit(Callable<T> work, Timer timer) {
+        long queuedAt = System.nanoTime();
+        Future<T> result;
+        try {
+            result = pool.submit(() -> {
+                long start = System.nanoTime();
+                record(waitTimer, start - queuedAt);
+                try {
+                    return work.call();
+                } finally {
+                    record(timer, System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PasswordHashingBusyException("Too many sign-in attempts in progress, please retry shortly");
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+    
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    // Each cost step doubles the time, so stop before the next one would cross the target
+    private static int calibrate(int minCost, int maxCost, long targetMillis) {
+        for (int i = 0; i < 5; i++) {
+            new BCryptPasswordEncoder(minCost).encode("calibration");
+        }
+        int cost = minCost;
+        while (cost < maxCost && 2 * hashMillis(cost) <= targetMillis) {
+            cost++;
+        }
+        return cost;
+    }
+    
+    private static long hashMillis(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return TimeUnit.NANOSECONDS.toMillis(best);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.hashing.queue", queue, ArrayBlockingQueue::size)
+            .description("Password hashing requests waiting for a thread")
+            .register(registry);
+        Gauge.builder("auth.hashing.active", pool, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashes in progress")
+            .register(registry);
+        Gauge.builder("auth.hashing.cost", this, BoundedPasswordEncoder::getCost)
+            .description("BCrypt work factor for new hashes")
+            .register(registry);
+        FunctionCounter.builder("auth.hashing.rejected", rejected, LongAdder::sum)
+            .description("Hashing requests rejected because the queue was full")
+            .register(registry);
+        waitTimer = Timer.builder("auth.hashing.wait")
+            .description("Time a hashing request waited for a thread")
+            .publishPercentileHistogram()
+            .register(registry);
+        encodeTimer = Timer.builder("auth.hashing.time")
+            .description("Time spent computing a password hash")
+            .tag("operation", "encode")
+            .publishPercentileHistogram()
+            .register(registry);
+        matchTimer = Timer.builder("auth.hashing.time")
+            .description("Time spent computing a password hash")
+            .tag("operation", "matches")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+}
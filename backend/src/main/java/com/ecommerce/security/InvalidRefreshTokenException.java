@@ -0,0 +1,11 @@
+package com.ecommerce.security;
+
+/**
+ * The refresh token is unknown, expired or already used; the client has to sign in again.
+ */
+public class InvalidRefreshTokenException extends RuntimeException {
+    
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
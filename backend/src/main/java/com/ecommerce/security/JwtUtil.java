@@ -2,11 +2,13 @@ package com.ecommerce.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -17,37 +19,73 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+            .verifyWith(signingKey)
+            .build();
     }
     
-    public String generateToken(String email) {
+    private static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_CLAIM = "role";
+    
+    /**
+     * Short-lived access token carrying everything a request needs (user id, email, role), so it
+     * can be authenticated without a user lookup. The random id lets it be revoked on its own.
+     */
+    public String generateAccessToken(Long userId, String email, String role) {
         return Jwts.builder()
+            .id(UUID.randomUUID().toString())
             .subject(email)
+            .claim(USER_ID_CLAIM, userId)
+            .claim(ROLE_CLAIM, role)
             .issuedAt(new Date())
             .expiration(new Date(System.currentTimeMillis() + expiration))
-            .signWith(getSigningKey())
+            .signWith(signingKey)
             .compact();
     }
     
+    public long getExpiration() {
+        return expiration;
+    }
+    
+    /**
+     * The principal described by verified claims, or null for tokens issued without them.
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (userId == null || role == null || claims.getId() == null || claims.getIssuedAt() == null) {
+            return null;
+        }
+        return new AuthenticatedUser(userId, claims.getSubject(), role, claims.getId(),
+            claims.getExpiration().getTime());
+    }
+    
     public String extractEmail(String token) {
         return extractClaims(token).getSubject();
     }
     
     public boolean validateToken(String token) {
+        return parseToken(token) != null;
+    }
+    
+    /**
+     * Verifies the token once and returns its claims, or null if it is invalid or expired.
+     */
+    public Claims parseToken(String token) {
         try {
-            extractClaims(token);
-            return true;
+            return extractClaims(token);
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
     }
     
     private Claims extractClaims(String token) {
-        return Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 }
@@ -0,0 +1,11 @@
+package com.ecommerce.security;
+
+/**
+ * Thrown when the password hashing pool and its queue are full; mapped to 503 so clients back off.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+    
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the principal resolved from a verified token, keyed by the token's SHA-256 digest, until
+ * the token expires (capped by max-ttl-seconds). The principal comes from the token's claims, so a
+ * miss costs a signature check and a hit skips it; neither touches the database. Revocation is
+ * checked on every call, hit or miss.
+ */
+@Component
+public class PrincipalCache {
+    
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationList revocationList;
+    private final long maxTtlMillis;
+    private final Cache<String, Entry> entries;
+    
+    public PrincipalCache(
+        JwtUtil jwtUtil,
+        TokenRevocationList revocationList,
+        @Value("${auth.principal-cache.max-size:100000}") long maxSize,
+        @Value("${auth.principal-cache.max-ttl-seconds:600}") long maxTtlSeconds
+    ) {
+        this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.maxTtlMillis = TimeUnit.SECONDS.toMillis(maxTtlSeconds);
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, Entry>() {
+                @Override
+                public long expireAfterCreate(String key, Entry entry, long currentTime) {
+                    long remaining = entry.expiresAtMillis - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+                }
+                
+                @Override
+                public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, entry, currentTime);
+                }
+                
+                @Override
+                public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+    
+    /**
+     * Returns the principal for a bearer token, or null if the token is invalid, expired or revoked.
+     */
+    public AuthenticatedUser resolve(String token) {
+        String key = digest(token);
+        Entry entry = entries.getIfPresent(key);
+        if (entry == null || entry.expiresAtMillis <= System.currentTimeMillis()) {
+            entry = load(token);
+            if (entry == null) {
+                return null;
+            }
+            entries.put(key, entry);
+        }
+        
+        AuthenticatedUser user = entry.user;
+        return revocationList.isRevoked(user.getTokenId(), user.getId(), entry.issuedAtSeconds) ? null : user;
+    }
+    
+    private Entry load(String token) {
+        Claims claims = jwtUtil.parseToken(token);
+        if (claims == null) {
+            return null;
+        }
+        AuthenticatedUser principal = jwtUtil.toPrincipal(claims);
+        if (principal == null) {
+            return null;
+        }
+        long expiresAt = Math.min(claims.getExpiration().getTime(), System.currentTimeMillis() + maxTtlMillis);
+        return new Entry(principal, expiresAt, claims.getIssuedAt().getTime() / 1000);
+    }
+    
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static final class Entry {
+        private final AuthenticatedUser user;
+        private final long expiresAtMillis;
+        private final long issuedAtSeconds;
+        
+        private Entry(AuthenticatedUser user, long expiresAtMillis, long issuedAtSeconds) {
+            this.user = user;
+            this.expiresAtMillis = expiresAtMillis;
+            this.issuedAtSeconds = issuedAtSeconds;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.ecommerce.security;
+
+import com.ecommerce.model.RevokedToken;
+import com.ecommerce.repository.RefreshTokenRepository;
+import com.ecommerce.repository.RevokedTokenRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Access-token revocations, checked on every authenticated request without touching the database.
+ * Revoked token ids and revoked users go into a Bloom filter; a miss, which is nearly every
+ * request, answers "not revoked" with a few array reads. Only a hit is confirmed against the
+ * revoked_tokens table (cached), so false positives cost a lookup, never a wrongly rejected token.
+ * <p>
+ * The filter is built from the table at startup, extended in place as this instance revokes and
+ * by polling for revocations made by other instances, and rebuilt periodically to shed entries
+ * whose tokens have expired.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList implements MeterBinder {
+    
+    private static final String TOKEN_PREFIX = "t:";
+    private static final String USER_PREFIX = "u:";
+    private static final long NOT_REVOKED = Long.MIN_VALUE;
+    // Re-read this far back on each sync so revocations committed out of order are not missed
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+    
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final long accessTokenTtlMillis;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Cache<String, Long> confirmed;
+    private final AtomicLong entries = new AtomicLong();
+    private final LongAdder falsePositives = new LongAdder();
+    private volatile BloomFilter filter;
+    private volatile long capacity;
+    private LocalDateTime lastSync;
+    
+    public TokenRevocationList(
+        RevokedTokenRepository revokedTokenRepository,
+        RefreshTokenRepository refreshTokenRepository,
+        @Value("${jwt.expiration}") long accessTokenTtlMillis,
+        @Value("${auth.revocation.expected-entries:100000}") long expectedEntries,
+        @Value("${auth.revocation.false-positive-rate:0.001}") double falsePositiveRate
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenTtlMillis = accessTokenTtlMillis;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmed = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+    }
+    
+    @PostConstruct
+    public void initialize() {
+        rebuild();
+    }
+    
+    /**
+     * True when the token itself was revoked, or its user was revoked at or after the second it
+     * was issued in (JWT issue times have second precision, so that second counts as revoked).
+     */
+    public boolean isRevoked(String tokenId, long userId, long issuedAtSeconds) {
+        BloomFilter current = filter;
+        long h = hashToken(tokenId);
+        if (current.mightContain(h, second(h)) && confirm(TOKEN_PREFIX + tokenId) != NOT_REVOKED) {
+            return true;
+        }
+        h = hashUser(userId);
+        if (current.mightContain(h, second(h))) {
+            long revokedAt = confirm(USER_PREFIX + userId);
+            return revokedAt != NOT_REVOKED && issuedAtSeconds <= revokedAt;
+        }
+        return false;
+    }
+    
+    @Transactional
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        String key = TOKEN_PREFIX + tokenId;
+        revokedTokenRepository.save(new RevokedToken(key, LocalDateTime.now(), toLocal(expiresAtMillis)));
+        add(key);
+    }
+    
+    /**
+     * Revokes every access and refresh token the user holds; they have to sign in again.
+     */
+    @Transactional
+    public void revokeUser(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        String key = USER_PREFIX + userId;
+        revokedTokenRepository.save(new RevokedToken(key, now, now.plusNanos(accessTokenTtlMillis * 1_000_000)));
+        refreshTokenRepository.revokeAllForUser(userId, now);
+        add(key);
+    }
+    
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval-ms:5000}")
+    public synchronized void sync() {
+        LocalDateTime now = LocalDateTime.now();
+        for (String key : revokedTokenRepository.findKeysRevokedSince(lastSync.minus(SYNC_OVERLAP), now)) {
+            add(key);
+        }
+        lastSync = now;
+        if (entries.get() > capacity) {
+            rebuild();
+        }
+    }
+    
+    @Scheduled(initialDelayString = "${auth.revocation.rebuild-interval-ms:3600000}",
+        fixedDelayString = "${auth.revocation.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        LocalDateTime started = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(started);
+        refreshTokenRepository.deleteExpired(started);
+        
+        List<String> keys = revokedTokenRepository.findActiveKeys(started);
+        long size = Math.max(expectedEntries, 2L * keys.size());
+        BloomFilter fresh = BloomFilter.create(size, falsePositiveRate);
+        for (String key : keys) {
+            long h = hash(key);
+            fresh.add(h, second(h));
+        }
+        filter = fresh;
+        capacity = size;
+        entries.set(keys.size());
+        confirmed.invalidateAll();
+        
+        // Picks up anything revoked while the table was being read
+        lastSync = started;
+        sync();
+        log.info("Token revocation filter built: {} entries, {} KB", keys.size(), fresh.sizeInBytes() / 1024);
+    }
+    
+    private void add(String key) {
+        long h = hash(key);
+        BloomFilter current = filter;
+        if (!current.mightContain(h, second(h))) {
+            current.add(h, second(h));
+            entries.incrementAndGet();
+        }
+        confirmed.invalidate(key);
+    }
+    
+    // Latest revocation time in epoch seconds, or NOT_REVOKED when the filter hit was a false positive
+    private long confirm(String key) {
+        return confirmed.get(key, k -> {
+            LocalDateTime revokedAt = revokedTokenRepository.findLatestRevocation(k, LocalDateTime.now());
+            if (revokedAt == null) {
+                falsePositives.increment();
+                return NOT_REVOKED;
+            }
+            return revokedAt.atZone(ZoneId.systemDefault()).toEpochSecond();
+        });
+    }
+    
+    private static long hash(String key) {
+        return key.startsWith(USER_PREFIX)
+            ? hashUser(Long.parseLong(key.substring(USER_PREFIX.length())))
+            : hashToken(key.substring(TOKEN_PREFIX.length()));
+    }
+    
+    // FNV-1a over the chars, then a 64-bit finalizer; no allocation on the request path
+    private static long hashToken(String tokenId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < tokenId.length(); i++) {
+            h ^= tokenId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix(h);
+    }
+    
+    private static long hashUser(long userId) {
+        return mix(userId ^ 0x5bd1e9955bd1e995L);
+    }
+    
+    private static long second(long h) {
+        return mix(h ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+    
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+    
+    private static LocalDateTime toLocal(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.revocation.entries", entries, AtomicLong::get)
+            .description("Revoked tokens and users in the revocation filter")
+            .register(registry);
+        Gauge.builder("auth.revocation.filter.size", this, list -> list.filter.sizeInBytes())
+            .description("Memory held by the revocation filter")
+            .baseUnit("bytes")
+            .register(registry);
+        FunctionCounter.builder("auth.revocation.false-positives", falsePositives, LongAdder::sum)
+            .description("Filter hits that the revocation table did not confirm")
+            .register(registry);
+    }
+}
@@ -1,23 +1,49 @@
 package com.ecommerce.service;
 
 import com.ecommerce.dto.*;
+import com.ecommerce.model.RefreshToken;
 import com.ecommerce.model.User;
+import com.ecommerce.repository.RefreshTokenRepository;
 import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.AuthenticatedUser;
+import com.ecommerce.security.InvalidRefreshTokenException;
 import com.ecommerce.security.JwtUtil;
+import com.ecommerce.security.TokenRevocationList;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
 
 @Service
+@Timed(value = "ecommerce.service", histogram = true)
 @RequiredArgsConstructor
 public class AuthService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationList tokenRevocationList;
+    private final SecureRandom random = new SecureRandom();
+    
+    @Value("${jwt.refresh-expiration-days:30}")
+    private long refreshExpirationDays;
+    
+    @Value("${jwt.refresh-reuse-grace-seconds:10}")
+    private long refreshReuseGraceSeconds;
     
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -39,16 +65,7 @@ public class AuthService {
         
         userRepository.save(user);
         
-        String token = jwtUtil.generateToken(user.getEmail());
-        
-        return new AuthResponse(
-            token,
-            user.getEmail(),
-            user.getFirstName(),
-            user.getLastName(),
-            user.getRole().name(),
-            user.getId()
-        );
+        return issueTokens(user, UUID.randomUUID().toString());
     }
     
     public AuthResponse login(LoginRequest request) {
@@ -59,7 +76,70 @@ public class AuthService {
         User user = userRepository.findByEmail(request.getEmail())
             .orElseThrow(() -> new RuntimeException("User not found"));
         
-        String token = jwtUtil.generateToken(user.getEmail());
+        return issueTokens(user, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. Each refresh token
+     * works once; presenting one that was already used ends its whole login, since either the
+     * client or whoever copied the token is replaying it. The exception is a token rotated within
+     * the last few seconds while its login is still live: that is two tabs refreshing together,
+     * and the later one gets its own pair.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public AuthResponse refresh(String refreshToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken stored = refreshTokenRepository.findWithUserByTokenHash(hash(refreshToken))
+            .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token is invalid"));
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+        if (stored.getRevokedAt() != null || refreshTokenRepository.revoke(stored.getId(), now) == 0) {
+            if (!rotatedWithinGrace(stored, now)) {
+                refreshTokenRepository.revokeFamily(stored.getFamilyId(), now);
+                throw new InvalidRefreshTokenException("Refresh token has already been used");
+            }
+        }
+        return issueTokens(stored.getUser(), stored.getFamilyId());
+    }
+    
+    /**
+     * Ends the login the refresh token belongs to and revokes the presented access token.
+     */
+    @Transactional
+    public void logout(String refreshToken, AuthenticatedUser principal) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+        }
+        if (principal != null) {
+            tokenRevocationList.revokeToken(principal.getTokenId(), principal.getTokenExpiresAtMillis());
+        }
+    }
+    
+    public User getCurrentUser(String email) {
+        return userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+    
+    // A null revokedAt means a concurrent request rotated the token after we read it, i.e. just now.
+    // Logout and user revocation leave no live token in the family, so they are never let through.
+    private boolean rotatedWithinGrace(RefreshToken stored, LocalDateTime now) {
+        LocalDateTime rotatedAt = stored.getRevokedAt();
+        if (rotatedAt != null && rotatedAt.isBefore(now.minus(Duration.ofSeconds(refreshReuseGraceSeconds)))) {
+            return false;
+        }
+        return !refreshTokenRepository.lockActiveInFamily(stored.getFamilyId(), now).isEmpty();
+    }
+    
+    private AuthResponse issueTokens(User user, String familyId) {
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+        refreshTokenRepository.save(new RefreshToken(user, hash(refreshToken), familyId,
+            LocalDateTime.now().plusDays(refreshExpirationDays)));
+        
+        String token = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getRole().name());
         
         return new AuthResponse(
             token,
@@ -67,12 +147,18 @@ public class AuthService {
             user.getFirstName(),
             user.getLastName(),
             user.getRole().name(),
-            user.getId()
+            user.getId(),
+            refreshToken,
+            jwtUtil.getExpiration() / 1000
         );
     }
     
-    public User getCurrentUser(String email) {
-        return userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -1,113 +1,103 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cart.CartLine;
+import com.ecommerce.cart.CartStore;
+import com.ecommerce.cart.UserCart;
 import com.ecommerce.dto.CartItemDTO;
-import com.ecommerce.model.CartItem;
+import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.model.Product;
 import com.ecommerce.model.User;
-import com.ecommerce.repository.CartRepository;
 import com.ecommerce.repository.ProductRepository;
 import com.ecommerce.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Cart reads are served from {@link CartStore}; mutations first move the stock reservation,
+ * which commits on its own, and only then change the in-memory cart.
+ */
 @Service
+@Timed(value = "ecommerce.service", histogram = true)
 @RequiredArgsConstructor
 public class CartService {
-    private final CartRepository cartRepository;
+    private final CartStore cartStore;
+    private final ProductService productService;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final StockReservationService stockReservationService;
     
     public List<CartItemDTO> getCartItems(String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return cartRepository.findByUser(user).stream()
-            .map(this::convertToDTO)
+        return cartStore.cart(email).lines().stream()
+            .map(line -> convertToDTO(line, productService.getProductById(line.getProductId())))
             .collect(Collectors.toList());
     }
     
-    public Double getCartTotal(String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Double total = cartRepository.getCartTotal(user);
-        return total != null ? total : 0.0;
+    public BigDecimal getCartTotal(String email) {
+        return UserCart.fromCents(cartStore.cart(email).totalCents());
     }
     
     public Integer getCartItemCount(String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return cartRepository.getCartItemCount(user);
+        return cartStore.cart(email).lineCount();
     }
     
-    @Transactional
     public CartItemDTO addToCart(String email, Long productId, Integer quantity) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        Product product = productRepository.findById(productId)
-            .orElseThrow(() -> new RuntimeException("Product not found"));
+        UserCart cart = cartStore.cart(email);
+        ProductDTO product = productService.getProductById(productId);
         
-        if (product.getStockQuantity() < quantity) {
-            throw new RuntimeException("Insufficient stock");
-        }
+        stockReservationService.reserve(userOf(cart), productRepository.getReferenceById(productId), quantity);
+        CartLine line = cartStore.add(email, productId, quantity,
+            UserCart.unitPriceCents(product.getPrice(), product.getDiscountPrice()));
         
-        CartItem cartItem = cartRepository.findByUserAndProduct(user, product)
-            .orElse(new CartItem(user, product, 0));
-        
-        cartItem.setQuantity(cartItem.getQuantity() + quantity);
-        CartItem saved = cartRepository.save(cartItem);
-        
-        return convertToDTO(saved);
+        return convertToDTO(line, product);
     }
     
-    @Transactional
-    public CartItemDTO updateCartItem(Long cartItemId, Integer quantity) {
-        CartItem cartItem = cartRepository.findById(cartItemId)
+    public CartItemDTO updateCartItem(String email, Long cartItemId, Integer quantity) {
+        UserCart cart = cartStore.cart(email);
+        CartLine line = cart.line(cartItemId)
             .orElseThrow(() -> new RuntimeException("Cart item not found"));
         
-        if (cartItem.getProduct().getStockQuantity() < quantity) {
-            throw new RuntimeException("Insufficient stock");
-        }
-        
-        cartItem.setQuantity(quantity);
-        CartItem updated = cartRepository.save(cartItem);
-        return convertToDTO(updated);
+        stockReservationService.adjust(userOf(cart), productRef(line), quantity);
+        CartLine updated = cartStore.update(email, cartItemId, quantity)
+            .orElseThrow(() -> new RuntimeException("Cart item not found"));
+        return convertToDTO(updated, productService.getProductById(updated.getProductId()));
     }
     
-    @Transactional
-    public void removeFromCart(Long cartItemId) {
-        cartRepository.deleteById(cartItemId);
+    public void removeFromCart(String email, Long cartItemId) {
+        UserCart cart = cartStore.cart(email);
+        cart.line(cartItemId).ifPresent(line -> {
+            stockReservationService.release(userOf(cart), productRef(line));
+            cartStore.remove(email, cartItemId);
+        });
     }
     
-    @Transactional
     public void clearCart(String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        cartRepository.deleteByUser(user);
+        UserCart cart = cartStore.cart(email);
+        stockReservationService.releaseAll(userOf(cart));
+        cartStore.clear(email);
+    }
+    
+    private User userOf(UserCart cart) {
+        return userRepository.getReferenceById(cart.getUserId());
     }
     
-    private CartItemDTO convertToDTO(CartItem cartItem) {
+    private Product productRef(CartLine line) {
+        return productRepository.getReferenceById(line.getProductId());
+    }
+    
+    CartItemDTO convertToDTO(CartLine line, ProductDTO product) {
         CartItemDTO dto = new CartItemDTO();
-        dto.setId(cartItem.getId());
-        dto.setProductId(cartItem.getProduct().getId());
-        dto.setProductName(cartItem.getProduct().getName());
-        dto.setProductImage(cartItem.getProduct().getImageUrl());
-        dto.setPrice(cartItem.getProduct().getPrice().doubleValue());
-        if (cartItem.getProduct().getDiscountPrice() != null) {
-            dto.setDiscountPrice(cartItem.getProduct().getDiscountPrice().doubleValue());
-        }
-        dto.setQuantity(cartItem.getQuantity());
-        
-        double itemPrice = cartItem.getProduct().getDiscountPrice() != null 
-            ? cartItem.getProduct().getDiscountPrice().doubleValue() 
-            : cartItem.getProduct().getPrice().doubleValue();
-        dto.setTotal(itemPrice * cartItem.getQuantity());
-        
+        dto.setId(line.getId());
+        dto.setProductId(line.getProductId());
+        dto.setProductName(product.getName());
+        dto.setProductImage(product.getImageUrl());
+        dto.setPrice(product.getPrice());
+        dto.setDiscountPrice(product.getDiscountPrice());
+        dto.setQuantity(line.getQuantity());
+        dto.setTotal(UserCart.fromCents(line.getTotalCents()));
         return dto;
     }
 }
@@ -0,0 +1,55 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CursorPage;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation token for seek pagination: the (createdAt, id) of the last row served.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private final LocalDateTime createdAt;
+    private final Long id;
+    
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+    
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+    
+    /**
+     * Builds a page from rows fetched with limit size + 1; the extra row only signals that more exist.
+     */
+    public static <E, R> CursorPage<R> toPage(List<E> rows, int size, Function<E, KeysetCursor> position,
+                                               Function<List<E>, List<R>> converter) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? position.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(converter.apply(page), nextCursor, hasNext);
+    }
+}
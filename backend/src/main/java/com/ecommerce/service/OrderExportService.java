@@ -0,0 +1,296 @@
+package com.ecommerce.service;
+
+import com.ecommerce.model.Order;
+import com.ecommerce.repository.OrderExportRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the order history straight from the database cursor to the response. Only the order
+ * being assembled is held in memory, and writes block on a slow client, which in turn stops the
+ * cursor from being read further.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+    
+    private static final int FLUSH_EVERY = 100;
+    
+    private final OrderExportRepository orderExportRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Getter
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Unsupported export format: " + value);
+        }
+    }
+    
+    public void export(LocalDateTime from, LocalDateTime to, Order.OrderStatus status, Format format,
+                       OutputStream out) throws IOException {
+        OrderWriter writer = format == Format.CSV ? new CsvOrderWriter(out) : new NdjsonOrderWriter(out);
+        OrderAssembler assembler = new OrderAssembler(writer);
+        long started = System.currentTimeMillis();
+        try {
+            orderExportRepository.streamOrderLines(from, to, status, assembler);
+            assembler.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            writer.close();
+        }
+        log.info("Exported {} orders as {} in {} ms", assembler.exported, format,
+            System.currentTimeMillis() - started);
+    }
+    
+    private static final class ExportedOrder {
+        long id;
+        LocalDateTime createdAt;
+        String status;
+        BigDecimal totalAmount;
+        String email;
+        String shippingAddress;
+        String city;
+        String state;
+        String zipCode;
+        String country;
+        String phone;
+        final List<ExportedItem> items = new ArrayList<>();
+    }
+    
+    private static final class ExportedItem {
+        long id;
+        long productId;
+        String productName;
+        int quantity;
+        BigDecimal price;
+    }
+    
+    /**
+     * Folds consecutive rows of one order into an {@link ExportedOrder} and hands it on
+     * as soon as the next order starts.
+     */
+    private static final class OrderAssembler implements RowCallbackHandler {
+        private final OrderWriter writer;
+        private ExportedOrder current;
+        private long exported;
+        
+        OrderAssembler(OrderWriter writer) {
+            this.writer = writer;
+        }
+        
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.id != id) {
+                finish();
+                current = new ExportedOrder();
+                current.id = id;
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                current.createdAt = createdAt != null ? createdAt.toLocalDateTime() : null;
+                current.status = rs.getString("status");
+                current.totalAmount = rs.getBigDecimal("total_amount");
+                current.email = rs.getString("email");
+                current.shippingAddress = rs.getString("shipping_address");
+                current.city = rs.getString("city");
+                current.state = rs.getString("state");
+                current.zipCode = rs.getString("zip_code");
+                current.country = rs.getString("country");
+                current.phone = rs.getString("phone");
+            }
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                ExportedItem item = new ExportedItem();
+                item.id = itemId;
+                item.productId = rs.getLong("product_id");
+                item.productName = rs.getString("product_name");
+                item.quantity = rs.getInt("quantity");
+                item.price = rs.getBigDecimal("price");
+                current.items.add(item);
+            }
+        }
+        
+        void finish() {
+            if (current == null) {
+                return;
+            }
+            try {
+                writer.write(current);
+                if (++exported % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            current = null;
+        }
+    }
+    
+    private interface OrderWriter {
+        void write(ExportedOrder order) throws IOException;
+        
+        void flush() throws IOException;
+        
+        void close() throws IOException;
+    }
+    
+    private final class NdjsonOrderWriter implements OrderWriter {
+        private final JsonGenerator json;
+        
+        NdjsonOrderWriter(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+        
+        @Override
+        public void write(ExportedOrder order) throws IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", order.id);
+            json.writeStringField("createdAt", format(order.createdAt));
+            json.writeStringField("status", order.status);
+            json.writeNumberField("totalAmount", order.totalAmount);
+            json.writeStringField("customerEmail", order.email);
+            json.writeStringField("shippingAddress", order.shippingAddress);
+            json.writeStringField("city", order.city);
+            json.writeStringField("state", order.state);
+            json.writeStringField("zipCode", order.zipCode);
+            json.writeStringField("country", order.country);
+            json.writeStringField("phone", order.phone);
+            json.writeArrayFieldStart("items");
+            for (ExportedItem item : order.items) {
+                json.writeStartObject();
+                json.writeNumberField("id", item.id);
+                json.writeNumberField("productId", item.productId);
+                json.writeStringField("productName", item.productName);
+                json.writeNumberField("quantity", item.quantity);
+                json.writeNumberField("price", item.price);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            json.close();
+        }
+    }
+    
+    /**
+     * One line per order item, with the order columns repeated; orders without items get one
+     * line with the item columns empty.
+     */
+    private static final class CsvOrderWriter implements OrderWriter {
+        private static final String HEADER = "order_id,created_at,status,total_amount,customer_email,"
+            + "shipping_address,city,state,zip_code,country,phone,item_id,product_id,product_name,quantity,price";
+        
+        private final Writer out;
+        
+        CsvOrderWriter(OutputStream out) throws IOException {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.out.write(HEADER);
+            this.out.write('\n');
+        }
+        
+        @Override
+        public void write(ExportedOrder order) throws IOException {
+            if (order.items.isEmpty()) {
+                writeLine(order, null);
+            }
+            for (ExportedItem item : order.items) {
+                writeLine(order, item);
+            }
+        }
+        
+        private void writeLine(ExportedOrder order, ExportedItem item) throws IOException {
+            out.write(Long.toString(order.id));
+            field(format(order.createdAt));
+            field(order.status);
+            field(order.totalAmount != null ? order.totalAmount.toPlainString() : null);
+            field(order.email);
+            field(order.shippingAddress);
+            field(order.city);
+            field(order.state);
+            field(order.zipCode);
+            field(order.country);
+            field(order.phone);
+            field(item != null ? Long.toString(item.id) : null);
+            field(item != null ? Long.toString(item.productId) : null);
+            field(item != null ? item.productName : null);
+            field(item != null ? Integer.toString(item.quantity) : null);
+            field(item != null && item.price != null ? item.price.toPlainString() : null);
+            out.write('\n');
+        }
+        
+        private void field(String value) throws IOException {
+            out.write(',');
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+        
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+    
+    private static String format(LocalDateTime value) {
+        return value != null ? value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+    }
+}
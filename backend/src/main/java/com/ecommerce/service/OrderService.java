@@ -1,54 +1,101 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cart.CartStore;
 import com.ecommerce.dto.*;
+import com.ecommerce.event.CartCheckedOutEvent;
 import com.ecommerce.model.*;
+import com.ecommerce.outbox.OrderEvents;
+import com.ecommerce.outbox.OutboxPublisher;
 import com.ecommerce.repository.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ecommerce.service", histogram = true)
 @RequiredArgsConstructor
 public class OrderService {
+    private static final int ITEM_BATCH_SIZE = 500;
+    
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final StockReservationService stockReservationService;
+    private final CartStore cartStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxPublisher outboxPublisher;
+    private final TransactionTemplate transactionTemplate;
     
     public List<OrderDTO> getUserOrders(String email) {
-        User user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        
-        return orderRepository.findByUserOrderByCreatedAtDesc(user).stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return convertToDTOs(orderRepository.findByUserEmail(email));
+    }
+    
+    public CursorPage<OrderDTO> getUserOrderPage(String email, String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFirstPageByUserEmail(email, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            orders = orderRepository.findPageByUserEmailBefore(email, after.getCreatedAt(), after.getId(), limit);
+        }
+        return KeysetCursor.toPage(orders, pageSize, this::positionOf, this::convertToDTOs);
     }
     
     public Page<OrderDTO> getAllOrders(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return orderRepository.findAllByOrderByCreatedAtDesc(pageable)
-            .map(this::convertToDTO);
+        Page<Order> orders = orderRepository.findAllByOrderByCreatedAtDesc(pageable);
+        return new PageImpl<>(convertToDTOs(orders.getContent()), pageable, orders.getTotalElements());
+    }
+    
+    public CursorPage<OrderDTO> scrollAllOrders(String cursor, int size) {
+        int pageSize = KeysetCursor.pageSize(size);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<Order> orders;
+        if (cursor == null || cursor.isBlank()) {
+            orders = orderRepository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            orders = orderRepository.findPageBefore(after.getCreatedAt(), after.getId(), limit);
+        }
+        return KeysetCursor.toPage(orders, pageSize, this::positionOf, this::convertToDTOs);
     }
     
     public OrderDTO getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
             .orElseThrow(() -> new RuntimeException("Order not found"));
         return convertToDTO(order);
     }
     
-    @Transactional
     public OrderDTO createOrder(String email, CheckoutRequest request) {
+        // Written back in its own short transaction before checkout opens one; flushing inside would
+        // hold a second pooled connection for the whole checkout
+        cartStore.flush(email);
+        return transactionTemplate.execute(status -> placeOrder(email, request));
+    }
+    
+    private OrderDTO placeOrder(String email, CheckoutRequest request) {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
-        List<CartItem> cartItems = cartRepository.findByUser(user);
+        List<CartItem> cartItems = cartRepository.findWithProductByUser(user);
         if (cartItems.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
@@ -62,25 +109,20 @@ public class OrderService {
         order.setCountry(request.getCountry());
         order.setPhone(request.getPhone());
         
+        stockReservationService.commit(user, cartItems);
+        
         BigDecimal total = BigDecimal.ZERO;
         
         for (CartItem cartItem : cartItems) {
             Product product = cartItem.getProduct();
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
-                throw new RuntimeException("Insufficient stock for: " + product.getName());
-            }
-            
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
-            productRepository.save(product);
-            
-            double price = product.getDiscountPrice() != null 
-                ? product.getDiscountPrice().doubleValue() 
-                : product.getPrice().doubleValue();
+            BigDecimal price = product.getDiscountPrice() != null 
+                ? product.getDiscountPrice() 
+                : product.getPrice();
             
-            BigDecimal itemTotal = BigDecimal.valueOf(price * cartItem.getQuantity());
+            BigDecimal itemTotal = price.multiply(BigDecimal.valueOf(cartItem.getQuantity()));
             total = total.add(itemTotal);
             
-            OrderItem orderItem = new OrderItem(order, product, cartItem.getQuantity(), BigDecimal.valueOf(price));
+            OrderItem orderItem = new OrderItem(order, product, cartItem.getQuantity(), price);
             order.getItems().add(orderItem);
         }
         
@@ -89,7 +131,21 @@ public class OrderService {
         
         Order saved = orderRepository.save(order);
         
-        cartRepository.deleteByUser(user);
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("orderId", saved.getId());
+        event.put("userEmail", email);
+        event.put("totalAmount", total);
+        event.put("itemCount", saved.getItems().size());
+        event.put("status", saved.getStatus().name());
+        outboxPublisher.append(saved.getId(), OrderEvents.ORDER_CREATED, event);
+        
+        // Only the rows read above; lines written back since then belong to the next order
+        Map<Long, Integer> orderedLines = new HashMap<>();
+        for (CartItem cartItem : cartItems) {
+            orderedLines.put(cartItem.getId(), cartItem.getQuantity());
+        }
+        cartRepository.deleteAllByIdInBatch(orderedLines.keySet());
+        eventPublisher.publishEvent(new CartCheckedOutEvent(email, orderedLines));
         
         return convertToDTO(saved);
     }
@@ -99,12 +155,61 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
             .orElseThrow(() -> new RuntimeException("Order not found"));
         
+        Order.OrderStatus previous = order.getStatus();
         order.setStatus(status);
         Order updated = orderRepository.save(order);
-        return convertToDTO(updated);
+        
+        if (previous != status) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("orderId", orderId);
+            event.put("from", previous.name());
+            event.put("to", status.name());
+            outboxPublisher.append(orderId, OrderEvents.ORDER_STATUS_CHANGED, event);
+        }
+        return convertToDTOs(List.of(updated)).get(0);
+    }
+    
+    private KeysetCursor positionOf(Order order) {
+        return new KeysetCursor(order.getCreatedAt(), order.getId());
     }
     
-    private OrderDTO convertToDTO(Order order) {
+    /**
+     * Converts a page of orders with one projection query per ITEM_BATCH_SIZE orders,
+     * instead of lazily loading items and products order by order.
+     */
+    private List<OrderDTO> convertToDTOs(List<Order> orders) {
+        Map<Long, List<OrderItemDTO>> itemsByOrder = new HashMap<>();
+        List<Long> orderIds = orders.stream().map(Order::getId).collect(Collectors.toList());
+        for (int from = 0; from < orderIds.size(); from += ITEM_BATCH_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(orderIds.size(), from + ITEM_BATCH_SIZE));
+            for (OrderItemSummary item : orderRepository.findItemSummaries(chunk)) {
+                itemsByOrder.computeIfAbsent(item.getOrderId(), k -> new ArrayList<>())
+                    .add(convertItemToDTO(item));
+            }
+        }
+        
+        return orders.stream()
+            .map(order -> {
+                OrderDTO dto = convertHeaderToDTO(order);
+                dto.setItems(itemsByOrder.getOrDefault(order.getId(), new ArrayList<>()));
+                return dto;
+            })
+            .collect(Collectors.toList());
+    }
+    
+    OrderDTO convertToDTO(Order order) {
+        OrderDTO dto = convertHeaderToDTO(order);
+        
+        if (order.getItems() != null) {
+            dto.setItems(order.getItems().stream()
+                .map(this::convertItemToDTO)
+                .collect(Collectors.toList()));
+        }
+        
+        return dto;
+    }
+    
+    private OrderDTO convertHeaderToDTO(Order order) {
         OrderDTO dto = new OrderDTO();
         dto.setId(order.getId());
         dto.setTotalAmount(order.getTotalAmount().doubleValue());
@@ -116,13 +221,6 @@ public class OrderService {
         dto.setCountry(order.getCountry());
         dto.setPhone(order.getPhone());
         dto.setCreatedAt(order.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-        
-        if (order.getItems() != null) {
-            dto.setItems(order.getItems().stream()
-                .map(this::convertItemToDTO)
-                .collect(Collectors.toList()));
-        }
-        
         return dto;
     }
     
@@ -136,4 +234,15 @@ public class OrderService {
         dto.setPrice(item.getPrice().doubleValue());
         return dto;
     }
+    
+    private OrderItemDTO convertItemToDTO(OrderItemSummary item) {
+        OrderItemDTO dto = new OrderItemDTO();
+        dto.setId(item.getId());
+        dto.setProductId(item.getProductId());
+        dto.setProductName(item.getProductName());
+        dto.setProductImage(item.getProductImage());
+        dto.setQuantity(item.getQuantity());
+        dto.setPrice(item.getPrice().doubleValue());
+        return dto;
+    }
 }
@@ -0,0 +1,171 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductBatchUpdateReport;
+import com.ecommerce.dto.ProductPatch;
+import com.ecommerce.event.ProductChangedEvent;
+import com.ecommerce.event.ProductStockChangedEvent;
+import com.ecommerce.repository.ProductPatchRepository;
+import com.ecommerce.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Applies price, discount, stock and featured-flag changes to many products without loading them
+ * through the persistence context. Patches are merged per id, sorted so concurrent batches lock
+ * rows in the same order, and written in chunks: each chunk is one JDBC batch in its own
+ * transaction and publishes one change event, so caches and indexes are invalidated once per
+ * chunk rather than once per product. A failed chunk rolls back alone and is reported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductBatchUpdateService {
+    
+    private final ProductPatchRepository patchRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${catalog.batch-update.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${catalog.batch-update.max-items:50000}")
+    private int maxItems;
+    
+    public ProductBatchUpdateReport patchProducts(List<ProductPatch> patches) {
+        if (patches.size() > maxItems) {
+            throw new RuntimeException("At most " + maxItems + " products can be updated per request");
+        }
+        long start = System.currentTimeMillis();
+        ProductBatchUpdateReport report = new ProductBatchUpdateReport();
+        report.setRequested(patches.size());
+        
+        TreeMap<Long, ProductPatch> merged = new TreeMap<>();
+        for (ProductPatch patch : patches) {
+            String error = validate(patch);
+            if (error != null) {
+                report.getRejected().add(new ProductBatchUpdateReport.Rejected(patch.getId(), error));
+            } else {
+                merged.merge(patch.getId(), patch, ProductBatchUpdateService::combine);
+            }
+        }
+        
+        List<ProductPatch> ordered = new ArrayList<>(merged.values());
+        for (int from = 0; from < ordered.size(); from += chunkSize) {
+            List<ProductPatch> chunk = ordered.subList(from, Math.min(ordered.size(), from + chunkSize));
+            ProductBatchUpdateReport.ChunkResult result = applyChunk(from / chunkSize, chunk);
+            report.getChunks().add(result);
+            report.setUpdated(report.getUpdated() + result.getUpdated());
+        }
+        report.setElapsedMs(System.currentTimeMillis() - start);
+        log.info("Batch product update: {} requested, {} updated, {} rejected in {} chunks, {} ms",
+            report.getRequested(), report.getUpdated(), report.getRejected().size(), report.getChunks().size(),
+            report.getElapsedMs());
+        return report;
+    }
+    
+    private ProductBatchUpdateReport.ChunkResult applyChunk(int index, List<ProductPatch> chunk) {
+        long start = System.currentTimeMillis();
+        ProductBatchUpdateReport.ChunkResult result = new ProductBatchUpdateReport.ChunkResult();
+        result.setChunk(index);
+        result.setFirstId(chunk.get(0).getId());
+        result.setLastId(chunk.get(chunk.size() - 1).getId());
+        result.setSize(chunk.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int[] counts = patchRepository.apply(chunk, LocalDateTime.now());
+                List<Long> changed = new ArrayList<>(chunk.size());
+                List<Long> missed = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        missed.add(chunk.get(i).getId());
+                    } else {
+                        changed.add(chunk.get(i).getId());
+                    }
+                }
+                if (!missed.isEmpty()) {
+                    // Zero rows matched: either no such product or the discount check failed
+                    Set<Long> existing = patchRepository.findExistingIds(missed);
+                    for (Long id : missed) {
+                        if (existing.contains(id)) {
+                            result.getConflicts().add(id);
+                        } else {
+                            result.getNotFound().add(id);
+                        }
+                    }
+                }
+                if (!changed.isEmpty()) {
+                    publishChange(chunk, changed);
+                }
+                result.setUpdated(changed.size());
+            });
+        } catch (RuntimeException e) {
+            result.setUpdated(0);
+            result.setError(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            log.warn("Batch product update chunk {} (ids {}..{}) rolled back: {}",
+                index, result.getFirstId(), result.getLastId(), result.getError());
+        }
+        result.setElapsedMs(System.currentTimeMillis() - start);
+        return result;
+    }
+    
+    // Stock-only chunks take the lighter event that descriptive indexes ignore.
+    private void publishChange(List<ProductPatch> chunk, List<Long> changed) {
+        boolean stockOnly = chunk.stream().allMatch(patch -> patch.getPrice() == null
+            && patch.getDiscountPrice() == null && patch.getIsFeatured() == null);
+        if (stockOnly) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(changed));
+        } else {
+            eventPublisher.publishEvent(new ProductChangedEvent(productRepository.findAllById(changed)));
+        }
+    }
+    
+    private static String validate(ProductPatch patch) {
+        if (patch.getId() == null) {
+            return "id is required";
+        }
+        if (patch.getPrice() == null && patch.getDiscountPrice() == null
+            && patch.getStockQuantity() == null && patch.getIsFeatured() == null) {
+            return "nothing to update";
+        }
+        if (patch.getPrice() != null && !(patch.getPrice() > 0 && Double.isFinite(patch.getPrice()))) {
+            return "price must be positive";
+        }
+        if (patch.getDiscountPrice() != null
+            && !(patch.getDiscountPrice() >= 0 && Double.isFinite(patch.getDiscountPrice()))) {
+            return "discountPrice must not be negative";
+        }
+        if (patch.getPrice() != null && patch.getDiscountPrice() != null
+            && patch.getDiscountPrice() >= patch.getPrice()) {
+            return "discountPrice must be below price";
+        }
+        if (patch.getStockQuantity() != null && patch.getStockQuantity() < 0) {
+            return "stockQuantity must not be negative";
+        }
+        return null;
+    }
+    
+    // A later patch for the same id overrides the fields it sets.
+    private static ProductPatch combine(ProductPatch earlier, ProductPatch later) {
+        ProductPatch combined = new ProductPatch();
+        combined.setId(earlier.getId());
+        combined.setPrice(later.getPrice() != null ? later.getPrice() : earlier.getPrice());
+        combined.setDiscountPrice(later.getDiscountPrice() != null
+            ? later.getDiscountPrice()
+            : earlier.getDiscountPrice());
+        combined.setStockQuantity(later.getStockQuantity() != null
+            ? later.getStockQuantity()
+            : earlier.getStockQuantity());
+        combined.setIsFeatured(later.getIsFeatured() != null ? later.getIsFeatured() : earlier.getIsFeatured());
+        return combined;
+    }
+}
@@ -1,12 +1,29 @@
 package com.ecommerce.service;
 
+import com.ecommerce.cache.CatalogCache;
+import com.ecommerce.catalog.CardSlice;
+import com.ecommerce.catalog.FacetFilter;
+import com.ecommerce.catalog.FacetedSlice;
+import com.ecommerce.catalog.ProductCard;
+import com.ecommerce.catalog.ProductCardStore;
+import com.ecommerce.catalog.ProductFilter;
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.FacetedPageDTO;
+import com.ecommerce.dto.ProductCardDTO;
 import com.ecommerce.dto.ProductDTO;
 import com.ecommerce.dto.ProductRequest;
+import com.ecommerce.event.ProductChangedEvent;
 import com.ecommerce.model.Product;
+import com.ecommerce.repository.ProductCardRow;
 import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.search.ProductSearchIndex;
+import com.ecommerce.search.SearchHits;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -14,59 +31,148 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ecommerce.service", histogram = true)
 @RequiredArgsConstructor
 @Slf4j
 public class ProductService {
     
     private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final CatalogCache catalogCache;
+    private final ProductCardStore cardStore;
+    private final ApplicationEventPublisher eventPublisher;
     
-    public Page<ProductDTO> getAllProducts(int page, int size, String sortBy, String sortDir) {
+    public Page<ProductCardDTO> getAllProducts(int page, int size, String sortBy, String sortDir) {
         log.debug("Fetching all products - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
-        Sort sort = sortDir.equalsIgnoreCase("desc") 
-            ? Sort.by(sortBy).descending() 
-            : Sort.by(sortBy).ascending();
+        boolean ascending = !sortDir.equalsIgnoreCase("desc");
+        Sort sort = ascending ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<ProductDTO> products = productRepository.findByIsActiveTrue(pageable)
-            .map(this::convertToDTO);
-        log.debug("Found {} products", products.getTotalElements());
-        return products;
+        if (cardStore.isReady() && cardStore.supportsSort(sortBy)) {
+            CardSlice slice = cardStore.page(sortBy, ascending, null, false, page * size, size);
+            return new PageImpl<>(convertToCards(slice.getRows()), pageable, slice.getTotal());
+        }
+        return productRepository.findActiveCards(pageable).map(this::convertToCard);
+    }
+    
+    public CursorPage<ProductCardDTO> scrollProducts(String cursor, int size) {
+        log.debug("Scrolling products - cursor: {}, size: {}", cursor, size);
+        int pageSize = KeysetCursor.pageSize(size);
+        KeysetCursor after = cursor == null || cursor.isBlank() ? null : KeysetCursor.decode(cursor);
+        List<ProductCardRow> rows;
+        if (cardStore.isReady()) {
+            rows = after == null
+                ? cardStore.page("createdAt", false, null, false, 0, pageSize + 1).getRows()
+                : cardStore.after(after.getCreatedAt(), after.getId(), pageSize + 1);
+        } else {
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+            List<Product> products = after == null
+                ? productRepository.findFirstActivePage(limit)
+                : productRepository.findActivePageBefore(after.getCreatedAt(), after.getId(), limit);
+            rows = products.stream().map(ProductCard::of).collect(Collectors.toList());
+        }
+        return KeysetCursor.toPage(rows, pageSize,
+            row -> new KeysetCursor(row.getCreatedAt(), row.getId()),
+            this::convertToCards);
     }
     
-    public Page<ProductDTO> getProductsByCategory(String category, int page, int size) {
+    public Page<ProductCardDTO> getProductsByCategory(String category, int page, int size) {
         log.debug("Fetching products by category: {} - page: {}, size: {}", category, page, size);
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.findByCategoryAndIsActiveTrue(category, pageable)
-            .map(this::convertToDTO);
+        if (cardStore.isReady()) {
+            CardSlice slice = cardStore.page("createdAt", false, category, false, page * size, size);
+            return new PageImpl<>(convertToCards(slice.getRows()), pageable, slice.getTotal());
+        }
+        return productRepository.findActiveCardsByCategory(category, pageable).map(this::convertToCard);
     }
     
-    public Page<ProductDTO> searchProducts(String query, int page, int size) {
+    public Page<ProductCardDTO> searchProducts(String query, int page, int size) {
         log.debug("Searching products: {} - page: {}, size: {}", query, page, size);
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.searchProducts(query, pageable)
-            .map(this::convertToDTO);
+        if (!searchIndex.isReady()) {
+            return productRepository.searchProducts(query, pageable)
+                .map(product -> convertToCard(ProductCard.of(product)));
+        }
+        
+        SearchHits hits = searchIndex.search(query, page * size, size);
+        List<ProductCardRow> rows;
+        if (cardStore.isReady()) {
+            rows = cardStore.cards(hits.getProductIds());
+        } else {
+            Map<Long, ProductCardRow> rowsById = productRepository.findCardsByIds(hits.getProductIds()).stream()
+                .collect(Collectors.toMap(ProductCardRow::getId, Function.identity()));
+            rows = hits.getProductIds().stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        }
+        return new PageImpl<>(convertToCards(rows), pageable, hits.getTotalHits());
     }
     
-    public List<ProductDTO> getFeaturedProducts() {
+    public List<ProductCardDTO> getFeaturedProducts() {
         log.debug("Fetching featured products");
-        return productRepository.findFeaturedProducts().stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        List<ProductCardRow> rows = cardStore.isReady()
+            ? cardStore.page("createdAt", false, null, true, 0, Integer.MAX_VALUE).getRows()
+            : productRepository.findFeaturedCards();
+        return convertToCards(rows);
+    }
+    
+    /**
+     * Full products for the admin table, which shows exact stock; catalog listings only carry inStock.
+     */
+    public Page<ProductDTO> getAdminProducts(int page, int size) {
+        log.debug("Fetching admin products - page: {}, size: {}", page, size);
+        return productRepository.findByIsActiveTrue(PageRequest.of(page, size, Sort.by("id").ascending()))
+            .map(this::convertToDTO);
     }
     
     public ProductDTO getProductById(Long id) {
         log.debug("Fetching product by id: {}", id);
-        Product product = productRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        return convertToDTO(product);
+        return catalogCache.getProduct(id, key -> convertToDTO(productRepository.findById(key)
+            .orElseThrow(() -> new RuntimeException("Product not found with id: " + key))));
+    }
+    
+    /**
+     * Filtered listing plus facet counts, answered entirely from the card store.
+     */
+    public FacetedPageDTO browseProducts(FacetFilter filter, int page, int size, String sortBy, String sortDir) {
+        log.debug("Browsing products - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        if (!cardStore.isReady()) {
+            throw new RuntimeException("Product catalog is still loading, try again shortly");
+        }
+        if (!cardStore.supportsSort(sortBy)) {
+            throw new RuntimeException("Unsupported sort field: " + sortBy);
+        }
+        boolean ascending = !sortDir.equalsIgnoreCase("desc");
+        FacetedSlice slice = cardStore.browse(filter, sortBy, ascending, page * size, size);
+        return new FacetedPageDTO(convertToCards(slice.getRows()), page, size, slice.getTotal(), slice.getFacets());
+    }
+    
+    public Page<ProductCardDTO> filterProducts(ProductFilter filter, int page, int size, String sortBy, String sortDir) {
+        log.debug("Filtering products - page: {}, size: {}, sortBy: {}, sortDir: {}", page, size, sortBy, sortDir);
+        if (!cardStore.isReady()) {
+            throw new RuntimeException("Product catalog is still loading, try again shortly");
+        }
+        if (!cardStore.supportsSort(sortBy)) {
+            throw new RuntimeException("Unsupported sort field: " + sortBy);
+        }
+        boolean ascending = !sortDir.equalsIgnoreCase("desc");
+        CardSlice slice = cardStore.filter(filter, sortBy, ascending, page * size, size);
+        return new PageImpl<>(convertToCards(slice.getRows()), PageRequest.of(page, size), slice.getTotal());
     }
     
     public List<String> getAllCategories() {
         log.debug("Fetching all categories");
-        return productRepository.findAllCategories();
+        if (cardStore.isReady()) {
+            return cardStore.categories();
+        }
+        return catalogCache.getCategories(productRepository::findAllCategories);
     }
     
     @Transactional
@@ -87,6 +193,7 @@ public class ProductService {
         product.setIsActive(true);
         
         Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(saved));
         log.info("Product created with id: {}", saved.getId());
         return convertToDTO(saved);
     }
@@ -103,7 +210,6 @@ public class ProductService {
         if (request.getDiscountPrice() != null) {
             product.setDiscountPrice(BigDecimal.valueOf(request.getDiscountPrice()));
         }
-        product.setStockQuantity(request.getStockQuantity());
         product.setCategory(request.getCategory());
         product.setImageUrl(request.getImageUrl());
         product.setBrand(request.getBrand());
@@ -112,6 +218,12 @@ public class ProductService {
         }
         
         Product updated = productRepository.save(product);
+        if (request.getStockQuantity() != null) {
+            // The request carries stock on hand; units held in carts stay out of stockQuantity
+            productRepository.setStockOnHand(id, request.getStockQuantity());
+            updated.setStockQuantity(productRepository.findStockQuantity(id));
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.of(updated));
         log.info("Product updated: {}", id);
         return convertToDTO(updated);
     }
@@ -123,18 +235,37 @@ public class ProductService {
             .orElseThrow(() -> new RuntimeException("Product not found"));
         product.setIsActive(false);
         productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.of(product));
         log.info("Product deleted (soft): {}", id);
     }
     
-    private ProductDTO convertToDTO(Product product) {
+    private List<ProductCardDTO> convertToCards(List<ProductCardRow> rows) {
+        return rows.stream().map(this::convertToCard).collect(Collectors.toList());
+    }
+    
+    ProductCardDTO convertToCard(ProductCardRow row) {
+        ProductCardDTO dto = new ProductCardDTO();
+        dto.setId(row.getId());
+        dto.setName(row.getName());
+        dto.setPrice(row.getPrice());
+        dto.setDiscountPrice(row.getDiscountPrice());
+        dto.setImageUrl(row.getImageUrl());
+        dto.setCategory(row.getCategory());
+        dto.setBrand(row.getBrand());
+        dto.setRating(row.getRating());
+        dto.setReviewCount(row.getReviewCount());
+        dto.setInStock(ProductCard.inStock(row.getStockQuantity()));
+        dto.setIsFeatured(row.getIsFeatured());
+        return dto;
+    }
+    
+    ProductDTO convertToDTO(Product product) {
         ProductDTO dto = new ProductDTO();
         dto.setId(product.getId());
         dto.setName(product.getName());
         dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice().doubleValue());
-        if (product.getDiscountPrice() != null) {
-            dto.setDiscountPrice(product.getDiscountPrice().doubleValue());
-        }
+        dto.setPrice(product.getPrice());
+        dto.setDiscountPrice(product.getDiscountPrice());
         dto.setStockQuantity(product.getStockQuantity());
         dto.setCategory(product.getCategory());
         dto.setImageUrl(product.getImageUrl());
@@ -0,0 +1,184 @@
+package com.ecommerce.service;
+
+import com.ecommerce.event.ProductStockChangedEvent;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.StockReservation;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.StockBatchRepository;
+import com.ecommerce.repository.StockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Holds stock for items sitting in carts. stockQuantity is the unreserved, sellable amount and is
+ * only ever moved with conditional single-row updates, so concurrent checkouts cannot oversell.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationService {
+    
+    private static final int SWEEP_BATCH_SIZE = 500;
+    
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final StockBatchRepository stockBatchRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${stock.reservation.ttl-minutes:15}")
+    private long ttlMinutes;
+    
+    @Transactional
+    public void reserve(User user, Product product, int quantity) {
+        requirePositive(quantity);
+        StockReservation reservation = reservationRepository.findByUserAndProduct(user, product)
+            .orElse(new StockReservation(user, product));
+        take(product, quantity);
+        reservation.setQuantity(reservation.getQuantity() + quantity);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+        reservationRepository.save(reservation);
+    }
+    
+    @Transactional
+    public void adjust(User user, Product product, int quantity) {
+        requirePositive(quantity);
+        StockReservation reservation = reservationRepository.findByUserAndProduct(user, product)
+            .orElse(new StockReservation(user, product));
+        int delta = quantity - reservation.getQuantity();
+        if (delta > 0) {
+            take(product, delta);
+        } else if (delta < 0) {
+            giveBack(product.getId(), -delta);
+        }
+        reservation.setQuantity(quantity);
+        reservation.setExpiresAt(LocalDateTime.now().plusMinutes(ttlMinutes));
+        reservationRepository.save(reservation);
+    }
+    
+    @Transactional
+    public void release(User user, Product product) {
+        reservationRepository.findByUserAndProduct(user, product).ifPresent(this::releaseReservation);
+    }
+    
+    @Transactional
+    public void releaseAll(User user) {
+        reservationRepository.findByUser(user).forEach(this::releaseReservation);
+    }
+    
+    /**
+     * Turns the user's reservations into the final decrement for the cart being checked out.
+     * Lines whose reservation expired are taken from free stock; leftovers are returned.
+     * Reservation claims, decrements and returns are each a single JDBC batch.
+     */
+    @Transactional
+    public void commit(User user, List<CartItem> cartItems) {
+        List<StockReservation> reservations = reservationRepository.findByUser(user);
+        Map<Long, Integer> reserved = new HashMap<>();
+        if (!reservations.isEmpty()) {
+            List<Long> reservationIds = reservations.stream()
+                .map(StockReservation::getId)
+                .collect(Collectors.toList());
+            int[] claimed = stockBatchRepository.deleteReservations(reservationIds);
+            for (int i = 0; i < claimed.length; i++) {
+                if (claimed[i] != 0) {
+                    StockReservation reservation = reservations.get(i);
+                    reserved.merge(reservation.getProduct().getId(), reservation.getQuantity(), Integer::sum);
+                }
+            }
+        }
+        
+        SortedMap<Long, Integer> toTake = new TreeMap<>();
+        SortedMap<Long, Integer> toReturn = new TreeMap<>();
+        Map<Long, String> names = new HashMap<>();
+        for (CartItem cartItem : cartItems) {
+            Product product = cartItem.getProduct();
+            names.put(product.getId(), product.getName());
+            int needed = cartItem.getQuantity() - reserved.getOrDefault(product.getId(), 0);
+            reserved.remove(product.getId());
+            if (needed > 0) {
+                toTake.merge(product.getId(), needed, Integer::sum);
+            } else if (needed < 0) {
+                toReturn.merge(product.getId(), -needed, Integer::sum);
+            }
+        }
+        reserved.forEach((productId, quantity) -> toReturn.merge(productId, quantity, Integer::sum));
+        
+        if (!toTake.isEmpty()) {
+            List<Long> failed = stockBatchRepository.decrementStock(toTake);
+            if (!failed.isEmpty()) {
+                throw new RuntimeException("Insufficient stock for: " + names.get(failed.get(0)));
+            }
+        }
+        if (!toReturn.isEmpty()) {
+            stockBatchRepository.incrementStock(toReturn);
+        }
+        
+        List<Long> changed = new ArrayList<>(toTake.keySet());
+        changed.addAll(toReturn.keySet());
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(changed));
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval-ms:60000}")
+    @Transactional
+    public void releaseExpired() {
+        List<StockReservation> expired;
+        int released = 0;
+        do {
+            expired = reservationRepository.findExpired(LocalDateTime.now(), PageRequest.of(0, SWEEP_BATCH_SIZE));
+            for (StockReservation reservation : expired) {
+                if (releaseReservation(reservation)) {
+                    released++;
+                }
+            }
+        } while (expired.size() == SWEEP_BATCH_SIZE);
+        
+        if (released > 0) {
+            log.info("Released {} expired stock reservations", released);
+        }
+    }
+    
+    private boolean releaseReservation(StockReservation reservation) {
+        if (reservationRepository.deleteReservation(reservation.getId()) == 0) {
+            return false;
+        }
+        giveBack(reservation.getProduct().getId(), reservation.getQuantity());
+        return true;
+    }
+    
+    // A non-positive quantity would turn the conditional decrement into an unconditional increment
+    private static void requirePositive(int quantity) {
+        if (quantity < 1) {
+            throw new RuntimeException("Quantity must be at least 1");
+        }
+    }
+    
+    private void take(Product product, int quantity) {
+        if (productRepository.decrementStock(product.getId(), quantity) == 0) {
+            throw new RuntimeException("Insufficient stock");
+        }
+        eventPublisher.publishEvent(ProductStockChangedEvent.of(product.getId()));
+    }
+    
+    private void giveBack(Long productId, int quantity) {
+        productRepository.incrementStock(productId, quantity);
+        eventPublisher.publishEvent(ProductStockChangedEvent.of(productId));
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.cart;
+
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCartTest {
+    
+    @Test
+    void checkoutKeepsLinesChangedWhileItRan() {
+        AtomicLong ids = new AtomicLong();
+        UserCart cart = new UserCart(1);
+        CartLine ordered = cart.add(10, 2, 500, ids::incrementAndGet);
+        CartLine raised = cart.add(11, 1, 300, ids::incrementAndGet);
+        cart.drain();
+        
+        // Checkout read both lines; meanwhile one was raised and a new one added
+        Map<Long, Integer> read = Map.of(ordered.getId(), 2, raised.getId(), 1);
+        cart.update(raised.getId(), 4);
+        CartLine added = cart.add(12, 1, 700, ids::incrementAndGet);
+        cart.checkedOut(read);
+        
+        List<CartLine> lines = cart.lines();
+        assertEquals(2, lines.size());
+        assertEquals(3, cart.line(raised.getId()).orElseThrow().getQuantity());
+        assertTrue(cart.line(added.getId()).isPresent());
+        assertEquals(3 * 300 + 700, cart.totalCents());
+        
+        UserCart.PendingWrites pending = cart.drain();
+        assertEquals(List.of(ordered.getId()), pending.getDeletes());
+        assertEquals(2, pending.getUpserts().size());
+    }
+}
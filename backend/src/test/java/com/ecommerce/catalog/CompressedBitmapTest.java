@@ -0,0 +1,134 @@
+package com.ecommerce.catalog;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Checks the bitmap against a {@link BitSet} oracle, across the 4096-value switch between the
+ * sorted-array and bitmap forms of a group in both directions.
+ */
+class CompressedBitmapTest {
+    
+    private static final int GROUP = 1 << 16;
+    private static final int GROUPS = 4;
+    private static final int ARRAY_MAX = 4096;
+    
+    @Test
+    void crossesTheArrayLimitBothWays() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet oracle = new BitSet();
+        int base = 2 * GROUP;
+        for (int i = 0; i < ARRAY_MAX; i++) {
+            add(bitmap, oracle, base + i * 16);
+        }
+        assertMatches(oracle, bitmap);
+        
+        // One past the limit turns the group into a bitmap; one removal turns it back
+        add(bitmap, oracle, base + 1);
+        assertFalse(bitmap.add(base + 1));
+        assertMatches(oracle, bitmap);
+        remove(bitmap, oracle, base + 16);
+        assertFalse(bitmap.remove(base + 16));
+        assertMatches(oracle, bitmap);
+        add(bitmap, oracle, base + 2);
+        add(bitmap, oracle, base + 3);
+        assertMatches(oracle, bitmap);
+        
+        // Drain the group through both forms until it disappears
+        for (int value = oracle.nextSetBit(0); value >= 0; value = oracle.nextSetBit(0)) {
+            remove(bitmap, oracle, value);
+            if (oracle.cardinality() % 512 == 0) {
+                assertMatches(oracle, bitmap);
+            }
+        }
+        assertTrue(bitmap.isEmpty());
+        assertFalse(bitmap.remove(base));
+    }
+    
+    @Test
+    void randomOperationsMatchBitSet() {
+        Random random = new Random(17);
+        int[] groupSizes = {0, 10, ARRAY_MAX - 1, ARRAY_MAX, ARRAY_MAX + 1, 20_000};
+        for (int round = 0; round < 25; round++) {
+            CompressedBitmap a = new CompressedBitmap();
+            CompressedBitmap b = new CompressedBitmap();
+            BitSet expectedA = new BitSet();
+            BitSet expectedB = new BitSet();
+            fill(random, groupSizes, a, expectedA);
+            fill(random, groupSizes, b, expectedB);
+            
+            // Thin some groups back below the array limit
+            for (int i = 0; i < 15_000; i++) {
+                int value = random.nextInt(GROUPS * GROUP);
+                assertEquals(expectedA.get(value), a.remove(value));
+                expectedA.clear(value);
+            }
+            assertMatches(expectedA, a);
+            assertMatches(expectedB, b);
+            
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            assertMatches(and, CompressedBitmap.and(a, b));
+            assertEquals(and.cardinality(), CompressedBitmap.andCardinality(a, b));
+            
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            assertMatches(or, CompressedBitmap.or(a, b));
+            
+            BitSet odd = new BitSet();
+            expectedA.stream().filter(value -> value % 2 == 1).forEach(odd::set);
+            assertMatches(odd, a.filter(value -> value % 2 == 1));
+            
+            // Results are copies: changing them leaves the inputs alone
+            CompressedBitmap union = CompressedBitmap.or(a, b);
+            union.add(GROUPS * GROUP - 1);
+            expectedA.stream().limit(100).forEach(union::remove);
+            assertMatches(expectedA, a);
+            assertMatches(expectedB, b);
+        }
+    }
+    
+    private static void fill(Random random, int[] groupSizes, CompressedBitmap bitmap, BitSet oracle) {
+        for (int group = 0; group < GROUPS; group++) {
+            int target = groupSizes[random.nextInt(groupSizes.length)];
+            BitSet values = new BitSet();
+            while (values.cardinality() < target) {
+                values.set(random.nextInt(GROUP));
+            }
+            int base = group * GROUP;
+            values.stream().forEach(low -> add(bitmap, oracle, base + low));
+        }
+    }
+    
+    private static void add(CompressedBitmap bitmap, BitSet oracle, int value) {
+        assertTrue(bitmap.add(value), () -> "add " + value);
+        oracle.set(value);
+    }
+    
+    private static void remove(CompressedBitmap bitmap, BitSet oracle, int value) {
+        assertTrue(bitmap.remove(value), () -> "remove " + value);
+        oracle.clear(value);
+    }
+    
+    private static void assertMatches(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+        List<Integer> values = new ArrayList<>();
+        actual.forEach(values::add);
+        assertEquals(expected.stream().boxed().collect(Collectors.toList()), values);
+        for (int value = 0; value < GROUPS * GROUP; value++) {
+            if (expected.get(value) != actual.contains(value)) {
+                fail("contains(" + value + ") should be " + expected.get(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.config;
+
+import com.ecommerce.model.User;
+import com.ecommerce.repository.UserRepository;
+import com.ecommerce.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admin endpoints must be refused by URL rules, not only by method annotations.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecurityConfigTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JwtUtil jwtUtil;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Test
+    void productPatchRequiresAdmin() throws Exception {
+        mockMvc.perform(patch("/api/products").contentType(MediaType.APPLICATION_JSON).content("[]"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(patch("/api/products").contentType(MediaType.APPLICATION_JSON).content("[]")
+                .header(HttpHeaders.AUTHORIZATION, bearer(User.Role.USER)))
+            .andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void orderExportRequiresAdmin() throws Exception {
+        mockMvc.perform(get("/api/orders/export").header(HttpHeaders.AUTHORIZATION, bearer(User.Role.USER)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/orders/export").header(HttpHeaders.AUTHORIZATION, bearer(User.Role.ADMIN)))
+            .andExpect(status().isOk());
+    }
+    
+    @Test
+    void allOrdersRequireAdmin() throws Exception {
+        String user = bearer(User.Role.USER);
+        mockMvc.perform(get("/api/orders/all/scroll").header(HttpHeaders.AUTHORIZATION, user))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/orders/all").header(HttpHeaders.AUTHORIZATION, user))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/orders/all/scroll").header(HttpHeaders.AUTHORIZATION, bearer(User.Role.ADMIN)))
+            .andExpect(status().isOk());
+    }
+    
+    private String bearer(User.Role role) {
+        User user = new User();
+        user.setEmail("security-" + UUID.randomUUID() + "@security.test");
+        user.setPassword("unused");
+        user.setFirstName("Security");
+        user.setLastName("Test");
+        user.setRole(role);
+        user = userRepository.save(user);
+        return "Bearer " + jwtUtil.generateAccessToken(user.getId(), user.getEmail(), role.name());
+    }
+}
@@ -0,0 +1,165 @@
+package com.ecommerce.search;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks hit sets against a brute-force scan of the live documents through re-indexing, removal,
+ * compaction and a snapshot round trip, plus the field weighting of the ranking.
+ */
+class InvertedIndexTest {
+    
+    private static final String[] WORDS = {
+        "red", "blue", "green", "shoe", "shoes", "shirt", "short", "sport", "sporty", "run",
+        "runner", "running", "wool", "winter", "summer", "kids", "men", "women", "acme", "zenith"
+    };
+    
+    @Test
+    void hitsMatchBruteForceThroughUpdatesAndCompaction() throws IOException {
+        Random random = new Random(7);
+        InvertedIndex index = new InvertedIndex();
+        Map<Long, String[]> live = new HashMap<>();
+        
+        // 300 products rewritten many times, so tombstones pass the compaction threshold repeatedly
+        for (int step = 0; step < 6000; step++) {
+            long productId = 1 + random.nextInt(300);
+            if (random.nextInt(10) == 0) {
+                index.remove(productId);
+                live.remove(productId);
+            } else {
+                String[] fields = {text(random, 3), text(random, 1), text(random, 1), text(random, 8)};
+                index.index(productId, fields[0], fields[1], fields[2], fields[3]);
+                live.put(productId, fields);
+            }
+            if (step % 500 == 0) {
+                assertQueries(random, index, live);
+            }
+        }
+        assertEquals(live.size(), index.size());
+        assertQueries(random, index, live);
+        
+        InvertedIndex restored = roundTrip(index);
+        assertEquals(live.size(), restored.size());
+        for (int q = 0; q < 50; q++) {
+            String query = query(random);
+            assertEquals(page(index, query, 0, Integer.MAX_VALUE), page(restored, query, 0, Integer.MAX_VALUE), query);
+        }
+    }
+    
+    @Test
+    void pagesConcatenateToTheFullRanking() {
+        Random random = new Random(11);
+        InvertedIndex index = new InvertedIndex();
+        for (long productId = 1; productId <= 500; productId++) {
+            index.index(productId, text(random, 3), text(random, 1), text(random, 1), text(random, 8));
+        }
+        for (int q = 0; q < 30; q++) {
+            String query = query(random);
+            List<Long> all = page(index, query, 0, Integer.MAX_VALUE);
+            List<Long> paged = new ArrayList<>();
+            for (int offset = 0; offset < all.size() + 7; offset += 7) {
+                paged.addAll(page(index, query, offset, 7));
+            }
+            assertEquals(all, paged, query);
+        }
+    }
+    
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        InvertedIndex index = new InvertedIndex();
+        index.index(1, "Plain tee", "Acme", "Clothing", "A wool blend");
+        index.index(2, "Wool tee", "Acme", "Clothing", "A plain blend");
+        index.index(3, "Linen tee", "Acme", "Clothing", "A cool blend");
+        
+        assertEquals(List.of(2L, 1L), page(index, "wool", 0, 10));
+        assertEquals(List.of(2L, 1L), page(index, "woo", 0, 10));
+        assertEquals(2L, page(index, "wool tee", 0, 10).get(0).longValue());
+        assertEquals(List.of(), page(index, "wool silk", 0, 10));
+        assertEquals(List.of(), page(index, "", 0, 10));
+    }
+    
+    private static void assertQueries(Random random, InvertedIndex index, Map<Long, String[]> live) {
+        for (int q = 0; q < 20; q++) {
+            String query = query(random);
+            TreeSet<Long> expected = new TreeSet<>();
+            live.forEach((productId, fields) -> {
+                if (matches(query, fields)) {
+                    expected.add(productId);
+                }
+            });
+            List<Long> hits = new ArrayList<>();
+            int total = index.search(query, 0, Integer.MAX_VALUE, hits);
+            assertEquals(expected.size(), total, query);
+            assertEquals(expected, new TreeSet<>(hits), query);
+        }
+    }
+    
+    /**
+     * Every token must appear in some field; the last one only as a prefix.
+     */
+    private static boolean matches(String query, String[] fields) {
+        List<String> tokens = Tokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        List<String> docTokens = new ArrayList<>();
+        for (String field : fields) {
+            docTokens.addAll(Tokenizer.tokenize(field));
+        }
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            boolean last = t == tokens.size() - 1;
+            if (docTokens.stream().noneMatch(docToken -> last ? docToken.startsWith(token) : docToken.equals(token))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static List<Long> page(InvertedIndex index, String query, int offset, int limit) {
+        List<Long> ids = new ArrayList<>();
+        index.search(query, offset, limit, ids);
+        return ids;
+    }
+    
+    private static InvertedIndex roundTrip(InvertedIndex index) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            index.writeTo(out);
+        }
+        return InvertedIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+    
+    private static String query(Random random) {
+        int tokens = 1 + random.nextInt(3);
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < tokens; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            if (i == tokens - 1 && random.nextBoolean()) {
+                word = word.substring(0, 1 + random.nextInt(word.length()));
+            }
+            query.append(i == 0 ? "" : " ").append(random.nextBoolean() ? word : word.toUpperCase());
+        }
+        return query.toString();
+    }
+    
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            text.append(i == 0 ? "" : random.nextBoolean() ? " " : ", ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.search;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks lookups against a brute-force ranking of every suggestion with a word starting with the
+ * prefix: highest weight first, earlier suggestions first among equal weights.
+ */
+class SuggestionTrieTest {
+    
+    private static final String[] WORDS = {
+        "wireless", "wired", "wire", "headphones", "head", "premium", "pro", "probe", "sport", "spotlight",
+        "usb", "usb-c", "charger", "cable", "case", "casual", "laptop", "lamp", "a", "ab"
+    };
+    
+    @Test
+    void lookupsMatchBruteForceRanking() {
+        Random random = new Random(3);
+        List<String> texts = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        SuggestionTrie.Builder builder = new SuggestionTrie.Builder();
+        for (int i = 0; i < 2000; i++) {
+            String text = text(random);
+            // A narrow weight range, so ties are common and the ordering between them is checked too
+            long weight = random.nextInt(20);
+            builder.add(text, (byte) (i % 3), i, weight);
+            texts.add(text);
+            weights.add(weight);
+        }
+        SuggestionTrie trie = builder.build();
+        
+        for (int q = 0; q < 500; q++) {
+            String prefix = prefix(random);
+            for (int k : new int[]{1, 3, SuggestionTrie.MAX_K}) {
+                int[] expected = expected(texts, weights, prefix, k);
+                assertArrayEquals(expected, trie.lookup(prefix, k), prefix + " k=" + k);
+            }
+        }
+        int first = trie.lookup("wire", 1)[0];
+        assertEquals(first, trie.productId(first));
+        assertEquals(first % 3, trie.type(first));
+        assertEquals(texts.get(first), trie.text(first));
+    }
+    
+    @Test
+    void completesEveryWordAndTruncatesLongKeys() {
+        String longWord = "supercalifragilisticexpialidocious-extra";
+        SuggestionTrie trie = new SuggestionTrie.Builder()
+            .add("Premium Wireless Headphones", (byte) 0, 1, 5)
+            .add("Wire Cutter", (byte) 0, 2, 9)
+            .add(longWord, (byte) 0, 3, 1)
+            .add("  ", (byte) 0, 4, 100)
+            .build();
+        
+        assertArrayEquals(new int[]{1, 0}, trie.lookup("WIRE", 5));
+        assertArrayEquals(new int[]{0}, trie.lookup("wireless head", 5));
+        assertArrayEquals(new int[]{0}, trie.lookup("headph", 5));
+        assertArrayEquals(new int[]{2}, trie.lookup(longWord + "ness and more", 5));
+        assertArrayEquals(new int[0], trie.lookup("cutters", 5));
+        assertArrayEquals(new int[0], trie.lookup("  ", 5));
+        assertArrayEquals(new int[0], trie.lookup("wire", 0));
+        assertArrayEquals(new int[0], trie.lookup("wire", -4));
+        assertArrayEquals(new int[0], SuggestionTrie.EMPTY.lookup("wire", 5));
+    }
+    
+    private static int[] expected(List<String> texts, List<Long> weights, String prefix, int k) {
+        String key = truncate(SuggestionTrie.normalize(prefix));
+        if (key.isEmpty()) {
+            return new int[0];
+        }
+        return IntStream.range(0, texts.size())
+            .filter(i -> hasWordStartingWith(SuggestionTrie.normalize(texts.get(i)), key))
+            .boxed()
+            .sorted(Comparator.comparing((Integer i) -> -weights.get(i)).thenComparing(i -> i))
+            .limit(k)
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+    
+    private static boolean hasWordStartingWith(String text, String key) {
+        for (int start = 0; start < text.length(); start++) {
+            if ((start == 0 || text.charAt(start - 1) == ' ')
+                && truncate(text.substring(start)).startsWith(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String truncate(String key) {
+        return key.length() > SuggestionTrie.MAX_KEY_LENGTH ? key.substring(0, SuggestionTrie.MAX_KEY_LENGTH) : key;
+    }
+    
+    private static String text(Random random) {
+        int words = 1 + random.nextInt(4);
+        return IntStream.range(0, words)
+            .mapToObj(i -> WORDS[random.nextInt(WORDS.length)])
+            .collect(Collectors.joining(random.nextBoolean() ? " " : " / "));
+    }
+    
+    private static String prefix(Random random) {
+        String text = text(random);
+        String[] words = text.split(" ");
+        String start = String.join(" ", Arrays.copyOfRange(words, random.nextInt(words.length), words.length));
+        return start.substring(0, 1 + random.nextInt(start.length()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.CursorPage;
+import com.ecommerce.dto.OrderDTO;
+import com.ecommerce.metrics.SqlStatementCounter;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.OrderRepository;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Order pages must cost a fixed number of SQL statements however many orders, items and products
+ * they hold: one for the order headers and one for all their items with product name and image.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderServiceTest {
+    
+    private static final int ORDERS = 37;
+    private static final int MAX_ITEMS_PER_ORDER = 6;
+    private static final int STATEMENTS_PER_PAGE = 2;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private SqlStatementCounter statementCounter;
+    
+    private String email;
+    private Set<Long> orderIds;
+    
+    @BeforeEach
+    void createOrders() {
+        User user = new User();
+        email = "orders-" + UUID.randomUUID() + "@statement.test";
+        user.setEmail(email);
+        user.setPassword("unused");
+        user.setFirstName("Order");
+        user.setLastName("Pages");
+        userRepository.save(user);
+        
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < MAX_ITEMS_PER_ORDER; i++) {
+            Product product = new Product();
+            product.setName("Statement count product " + i);
+            product.setPrice(BigDecimal.valueOf(10 + i));
+            product.setStockQuantity(100);
+            product.setImageUrl("https://example.com/" + i + ".jpg");
+            products.add(product);
+        }
+        products = productRepository.saveAll(products);
+        
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setShippingAddress("1 Main Street");
+            order.setCity("Springfield");
+            order.setCountry("USA");
+            BigDecimal total = BigDecimal.ZERO;
+            // 1 to MAX_ITEMS_PER_ORDER lines, so pages differ in item count but not in statement count
+            for (int j = 0; j <= i % MAX_ITEMS_PER_ORDER; j++) {
+                Product product = products.get(j);
+                order.getItems().add(new OrderItem(order, product, 1, product.getPrice()));
+                total = total.add(product.getPrice());
+            }
+            order.setTotalAmount(total);
+            orders.add(order);
+        }
+        orderIds = new HashSet<>();
+        orderRepository.saveAll(orders).forEach(order -> orderIds.add(order.getId()));
+    }
+    
+    @Test
+    void userOrderPagesUseConstantStatements() {
+        for (int size : new int[]{5, 20}) {
+            Set<Long> seen = new HashSet<>();
+            String cursor = null;
+            CursorPage<OrderDTO> page;
+            do {
+                statementCounter.reset();
+                page = orderService.getUserOrderPage(email, cursor, size);
+                assertEquals(STATEMENTS_PER_PAGE, statementCounter.current(), "statements for a page of " + size);
+                
+                assertFalse(page.getContent().isEmpty());
+                for (OrderDTO order : page.getContent()) {
+                    assertTrue(seen.add(order.getId()), "order " + order.getId() + " returned twice");
+                    assertFalse(order.getItems().isEmpty());
+                    order.getItems().forEach(item -> assertTrue(item.getProductName().startsWith("Statement count")));
+                }
+                cursor = page.getNextCursor();
+            } while (page.isHasNext());
+            assertEquals(orderIds, seen);
+        }
+    }
+    
+    @Test
+    void adminScrollPageUsesConstantStatements() {
+        statementCounter.reset();
+        CursorPage<OrderDTO> page = orderService.scrollAllOrders(null, 50);
+        assertEquals(STATEMENTS_PER_PAGE, statementCounter.current());
+        assertFalse(page.getContent().isEmpty());
+    }
+    
+    @Test
+    void orderDetailUsesOneStatement() {
+        Long id = orderIds.iterator().next();
+        statementCounter.reset();
+        OrderDTO order = orderService.getOrderById(id);
+        assertEquals(1, statementCounter.current());
+        assertFalse(order.getItems().isEmpty());
+    }
+}
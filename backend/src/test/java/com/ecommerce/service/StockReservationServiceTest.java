@@ -0,0 +1,224 @@
+package com.ecommerce.service;
+
+import com.ecommerce.dto.ProductRequest;
+import com.ecommerce.model.CartItem;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.StockReservation;
+import com.ecommerce.model.User;
+import com.ecommerce.repository.ProductRepository;
+import com.ecommerce.repository.StockReservationRepository;
+import com.ecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationServiceTest {
+    
+    private static final int THREADS = 32;
+    private static final int STOCK = 500;
+    private static final int CHECKOUTS = 2000;
+    
+    @Autowired
+    private StockReservationService reservationService;
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private StockReservationRepository reservationRepository;
+    
+    @Autowired
+    private ProductService productService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        Product product = productRepository.save(product("Flash sale checkout", STOCK));
+        List<User> users = users("checkout", CHECKOUTS);
+        
+        AtomicInteger sold = new AtomicInteger();
+        runConcurrently(users, user -> {
+            reservationService.commit(user, List.of(new CartItem(user, product, 1)));
+            sold.incrementAndGet();
+        });
+        
+        assertEquals(STOCK, sold.get());
+        assertEquals(0, stockOf(product));
+    }
+    
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        Product product = productRepository.save(product("Flash sale cart", STOCK));
+        List<User> users = users("reserve", CHECKOUTS);
+        
+        AtomicInteger held = new AtomicInteger();
+        runConcurrently(users, user -> {
+            reservationService.reserve(user, product, 1);
+            held.incrementAndGet();
+        });
+        
+        int reserved = reservationRepository.findAll().stream()
+            .filter(reservation -> reservation.getProduct().getId().equals(product.getId()))
+            .mapToInt(StockReservation::getQuantity)
+            .sum();
+        assertEquals(STOCK, held.get());
+        assertEquals(STOCK, reserved);
+        assertEquals(0, stockOf(product));
+    }
+    
+    @Test
+    void nonPositiveQuantitiesAreRejected() {
+        Product product = productRepository.save(product("Negative quantity", 5));
+        User user = users("negative", 1).get(0);
+        
+        assertThrows(RuntimeException.class, () -> reservationService.reserve(user, product, -100));
+        assertThrows(RuntimeException.class, () -> reservationService.reserve(user, product, 0));
+        assertThrows(RuntimeException.class, () -> reservationService.adjust(user, product, -3));
+        assertEquals(5, stockOf(product));
+    }
+    
+    @Test
+    void absoluteStockUpdatesLeaveHoldsReserved() {
+        Product product = productRepository.save(product("Restocked", 5));
+        List<User> users = users("restock", 2);
+        reservationService.reserve(users.get(0), product, 2);
+        reservationService.reserve(users.get(1), product, 1);
+        
+        ProductRequest request = new ProductRequest();
+        request.setName(product.getName());
+        request.setPrice(19.99);
+        request.setCategory(product.getCategory());
+        request.setStockQuantity(10);
+        productService.updateProduct(product.getId(), request);
+        assertEquals(7, stockOf(product));
+        
+        request.setStockQuantity(1);
+        productService.updateProduct(product.getId(), request);
+        assertEquals(0, stockOf(product));
+    }
+    
+    @Test
+    void productEditsKeepConcurrentReservations() throws Exception {
+        Product product = productRepository.save(product("Edited while in carts", 10));
+        List<User> users = users("edit", 2);
+        ProductRequest request = new ProductRequest();
+        request.setName("Edited while in carts, renamed");
+        request.setPrice(24.99);
+        request.setCategory(product.getCategory());
+        
+        reserveDuring(() -> productService.updateProduct(product.getId(), request), users.get(0), product, 3);
+        assertEquals(7, stockOf(product));
+        
+        reserveDuring(() -> productService.deleteProduct(product.getId()), users.get(1), product, 2);
+        assertEquals(5, stockOf(product));
+    }
+    
+    /**
+     * Runs the edit in an outer transaction and commits a reservation from another thread after the edit
+     * has loaded the product but before its changes are flushed.
+     */
+    private void reserveDuring(Runnable edit, User user, Product product, int quantity) throws Exception {
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            new TransactionTemplate(transactionManager).execute(status -> {
+                edit.run();
+                try {
+                    other.submit(() -> reservationService.reserve(user, product, quantity)).get(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new RuntimeException("Reservation did not complete during the edit", e);
+                }
+                return null;
+            });
+        } finally {
+            other.shutdownNow();
+        }
+    }
+    
+    /**
+     * Runs one attempt per user from a fixed pool, all released at once. "Insufficient stock" is the
+     * expected refusal once the SKU sells out; any other failure (lock timeout, deadlock) fails the test.
+     */
+    private void runConcurrently(List<User> users, Attempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (User user : users) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        attempt.run(user);
+                    } catch (RuntimeException e) {
+                        if (e.getMessage() == null || !e.getMessage().startsWith("Insufficient stock")) {
+                            unexpected.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(unexpected.isEmpty(), () -> "Unexpected failures: " + unexpected);
+    }
+    
+    private int stockOf(Product product) {
+        return productRepository.findById(product.getId()).orElseThrow().getStockQuantity();
+    }
+    
+    private List<User> users(String prefix, int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setEmail(prefix + i + "@stress.test");
+            user.setPassword("unused");
+            user.setFirstName("Stress");
+            user.setLastName("Test " + i);
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+    
+    private static Product product(String name, int stock) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(BigDecimal.valueOf(19.99));
+        product.setStockQuantity(stock);
+        product.setCategory("Electronics");
+        return product;
+    }
+    
+    private interface Attempt {
+        void run(User user);
+    }
+}
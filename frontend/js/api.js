@@ -1,8 +1,51 @@
 const API_BASE_URL = 'http://localhost:8080/api';
 const API_TIMEOUT = 15000;
 
+let refreshInFlight = null;
+
+// Access tokens are short-lived; trade the refresh token for a new pair, once per burst of 401s
+function refreshSession() {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+        return Promise.resolve(false);
+    }
+    if (!refreshInFlight) {
+        refreshInFlight = fetch(`${API_BASE_URL}/auth/refresh`, {
+            method: 'POST',
+            headers: { 'Content-Type': 'application/json' },
+            body: JSON.stringify({ refreshToken })
+        })
+            .then(response => response.ok ? response.json() : null)
+            .then(data => {
+                if (!data) {
+                    return false;
+                }
+                localStorage.setItem('token', data.token);
+                localStorage.setItem('refreshToken', data.refreshToken);
+                return true;
+            })
+            .catch(() => false)
+            .finally(() => {
+                refreshInFlight = null;
+            });
+    }
+    return refreshInFlight;
+}
+
+function saveSession(data) {
+    localStorage.setItem('token', data.token);
+    localStorage.setItem('refreshToken', data.refreshToken);
+    localStorage.setItem('user', JSON.stringify(data));
+}
+
+function clearSession() {
+    localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
+    localStorage.removeItem('user');
+}
+
 const api = {
-    async request(endpoint, method = 'GET', data = null, authenticated = true) {
+    async request(endpoint, method = 'GET', data = null, authenticated = true, retried = false) {
         const headers = {
             'Content-Type': 'application/json'
         };
@@ -32,8 +75,10 @@ const api = {
             clearTimeout(timeoutId);
             
             if (response.status === 401) {
-                localStorage.removeItem('token');
-                localStorage.removeItem('user');
+                if (authenticated && !retried && await refreshSession()) {
+                    return this.request(endpoint, method, data, authenticated, true);
+                }
+                clearSession();
                 window.location.href = 'login.html';
                 throw new Error('Session expired. Please login again.');
             }
@@ -74,7 +119,7 @@ const api = {
     }
 };
 
-async function fetchAPI(endpoint, method = 'GET', data = null) {
+async function fetchAPI(endpoint, method = 'GET', data = null, retried = false) {
     const token = localStorage.getItem('token');
     
     const headers = {
@@ -103,8 +148,10 @@ async function fetchAPI(endpoint, method = 'GET', data = null) {
         clearTimeout(timeoutId);
         
         if (response.status === 401) {
-            localStorage.removeItem('token');
-            localStorage.removeItem('user');
+            if (token && !retried && await refreshSession()) {
+                return fetchAPI(endpoint, method, data, true);
+            }
+            clearSession();
             window.location.href = 'login.html';
             throw new Error('Session expired. Please login again.');
         }
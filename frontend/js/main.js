@@ -206,8 +206,7 @@ function checkAuth() {
             if (mobileAccountLink) mobileAccountLink.style.display = 'block';
             if (mobileLogoutLink) mobileLogoutLink.style.display = 'block';
         } catch (e) {
-            localStorage.removeItem('token');
-            localStorage.removeItem('user');
+            clearSession();
             if (loginBtnWrapper) loginBtnWrapper.style.display = 'flex';
             if (userWrapper) userWrapper.style.display = 'none';
             if (adminLinkItem) adminLinkItem.style.display = 'none';
@@ -225,8 +224,19 @@ function checkAuth() {
 }
 
 function logout() {
-    localStorage.removeItem('token');
-    localStorage.removeItem('user');
+    const token = localStorage.getItem('token');
+    const refreshToken = localStorage.getItem('refreshToken');
+    const headers = { 'Content-Type': 'application/json' };
+    if (token) {
+        headers['Authorization'] = `Bearer ${token}`;
+    }
+    // Revoke server-side too; the local session is cleared either way
+    fetch(`${API_BASE_URL}/auth/logout`, {
+        method: 'POST',
+        headers,
+        body: JSON.stringify({ refreshToken })
+    }).catch(() => {});
+    clearSession();
     showToast('Logged out successfully', 'success');
     setTimeout(() => window.location.href = 'index.html', 1000);
 }